@@ -0,0 +1,69 @@
+package benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar: java -jar target/benchmarks.jar [JMH options]
+ * Runs the selected benchmarks once on a single thread and once on every available processor, with the gc profiler attached so each
+ * result also reports the bytes allocated per operation. Results are written to jmh-result-1-thread.json and jmh-result-N-threads.json.
+ * Other JMH options, such as a benchmark regex or -p magnitude=HUGE, are passed through. A thread count given with -t replaces the
+ * sweep with a single run, -rf and -rff replace the result files, and -h, -l, -lp, -lprof and -lrf print what they ask for without
+ * running anything.
+ */
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+
+		CommandLineOptions command = new CommandLineOptions(args);
+
+		// the informational options of the standard JMH launcher
+		if (command.shouldHelp()) {
+			command.showHelp();
+			return;
+		}
+		if (command.shouldListProfilers()) {
+			command.listProfilers();
+			return;
+		}
+		if (command.shouldListResultFormats()) {
+			command.listResultFormats();
+			return;
+		}
+		if (command.shouldList() || command.shouldListWithParams()) {
+			Runner runner = new Runner(command);
+			if (command.shouldList()) runner.list();
+			else runner.listWithParams(command);
+			return;
+		}
+
+		int processors = Runtime.getRuntime().availableProcessors();
+		int[] sweep = command.getThreads().hasValue() ? new int[] {command.getThreads().get()} : new int[] {1, processors};
+
+		for (int threads : sweep) {
+			ChainedOptionsBuilder options = new OptionsBuilder()
+					.parent(command)
+					.addProfiler(GCProfiler.class)
+					.threads(threads);
+			if (!command.getResultFormat().hasValue()) options.resultFormat(ResultFormatType.JSON);
+			if (!command.getResult().hasValue())
+				options.result(threads == 1 ? "jmh-result-1-thread.json" : "jmh-result-" + threads + "-threads.json");
+			if (command.getIncludes().isEmpty()) options.include(QuadraticBenchmark.class.getSimpleName());
+			new Runner(options.build()).run();
+			if (sweep.length == 1 || processors == 1) break; // the multi-threaded run would repeat the single-threaded one
+		}
+
+	}
+
+}
@@ -0,0 +1,106 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the Quadratic hot paths: the Newton square root, input validation, number formatting and solving.
+ * Every benchmark runs on one equation chosen by the sign of its discriminant and the magnitude of its coefficients. TINY, NORMAL and
+ * HUGE scale the same equation by 1e-100, 1 and 1e100; NEAR_CANCELLATION makes b^2 and 4ac agree to about twelve digits, which for a
+ * zero discriminant is the exact case. Thread counts and the allocation profiler are set by BenchmarkRunner.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuadraticBenchmark {
+
+	public enum Sign {
+		POSITIVE, ZERO, NEGATIVE
+	}
+
+	public enum Magnitude {
+		TINY, NORMAL, HUGE, NEAR_CANCELLATION
+	}
+
+	@Param
+	public Sign sign;
+
+	@Param
+	public Magnitude magnitude;
+
+	private double a, b, c;
+	private double discriminant, root;
+	private String coefficient;
+	private Object roots;
+
+	@Setup
+	public void setUp() throws Throwable {
+
+		if (magnitude == Magnitude.NEAR_CANCELLATION) {
+			a = 1;
+			b = 2;
+			c = (sign == Sign.POSITIVE) ? 1 - 0x1p-40 : (sign == Sign.NEGATIVE) ? 1 + 0x1p-40 : 1;
+		} else {
+			double scale = (magnitude == Magnitude.TINY) ? 1e-100 : (magnitude == Magnitude.HUGE) ? 1e100 : 1;
+			a = scale;
+			b = ((sign == Sign.POSITIVE) ? -3 : (sign == Sign.ZERO) ? 2 : 0) * scale;
+			c = ((sign == Sign.POSITIVE) ? 2 : (sign == Sign.ZERO) ? 1 : 4) * scale;
+		}
+
+		discriminant = Math.abs(b*b - 4*a*c);
+		root = (-0.5) * (b + Math.copySign(Math.sqrt(discriminant), b)) / a;
+		coefficient = (String) Targets.FORMAT_DOUBLE.invokeExact(c);
+		roots = (Object) Targets.NEW_ROOTS.invokeExact();
+
+	}
+
+	@Benchmark
+	public double sqrtByNewton() throws Throwable {
+		return (double) Targets.SQRT_BY_NEWTON.invokeExact(discriminant);
+	}
+
+	@Benchmark
+	public double validateInput() throws Throwable {
+		return (double) Targets.VALIDATE_INPUT.invokeExact(coefficient);
+	}
+
+	@Benchmark
+	public String formatDouble() throws Throwable {
+		return (String) Targets.FORMAT_DOUBLE.invokeExact(root);
+	}
+
+	/*
+	 * The solve behind solveQuadratic, without printing. Equations that lose precision throw, which is part of what is measured.
+	 */
+	@Benchmark
+	public Object solveQuadratic() throws Throwable {
+		try {
+			return (Object) Targets.SOLVE.invokeExact(a, b, c);
+		} catch (Exception e) {
+			return e;
+		}
+	}
+
+	/*
+	 * The allocation-free path: status codes instead of exceptions and a holder reused across calls.
+	 */
+	@Benchmark
+	public int trySolve() throws Throwable {
+		return (int) Targets.TRY_SOLVE.invokeExact(a, b, c, roots);
+	}
+
+}
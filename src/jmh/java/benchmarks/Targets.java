@@ -0,0 +1,47 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Handles to the solver methods under test.
+ * JMH does not accept benchmarks in the default package, and classes in a named package cannot refer to the default-package solver
+ * classes by name, so the benchmarks reach them through method handles. The handles are static final, which lets the JIT inline the
+ * call as if it were direct, and they are typed with plain Object where a solver class would appear.
+ */
+final class Targets {
+
+	static final MethodHandle SQRT_BY_NEWTON;
+	static final MethodHandle VALIDATE_INPUT;
+	static final MethodHandle FORMAT_DOUBLE;
+	static final MethodHandle SOLVE;
+	static final MethodHandle TRY_SOLVE;
+	static final MethodHandle NEW_ROOTS;
+
+	static {
+		try {
+			Class<?> quadratic = Class.forName("Quadratic");
+			Class<?> roots = Class.forName("QuadraticRoots");
+			// the classpath is one unnamed module, which opens every package, so package-private methods are reachable too
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(quadratic, MethodHandles.lookup());
+
+			SQRT_BY_NEWTON = lookup.findStatic(quadratic, "sqrtByNewton", MethodType.methodType(double.class, double.class));
+			VALIDATE_INPUT = lookup.findStatic(quadratic, "validateInput", MethodType.methodType(double.class, String.class));
+			FORMAT_DOUBLE = lookup.findStatic(quadratic, "formatDouble", MethodType.methodType(String.class, double.class));
+			SOLVE = lookup.findStatic(quadratic, "solve", MethodType.methodType(roots, double.class, double.class, double.class))
+					.asType(MethodType.methodType(Object.class, double.class, double.class, double.class));
+			TRY_SOLVE = lookup.findStatic(quadratic, "trySolve",
+					MethodType.methodType(int.class, double.class, double.class, double.class, roots))
+					.asType(MethodType.methodType(int.class, double.class, double.class, double.class, Object.class));
+			NEW_ROOTS = lookup.findConstructor(roots, MethodType.methodType(void.class))
+					.asType(MethodType.methodType(Object.class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private Targets() {
+	}
+
+}
@@ -0,0 +1,58 @@
+import java.nio.ByteBuffer;
+
+/**
+ * A strided view of one field of a batch of equations held in a ByteBuffer, typically a direct or memory-mapped one.
+ * Row i of the field starts at byte offset + i*stride and is read in the byte order of the buffer, so interleaved records and separate
+ * columns can both be described without copying. Roots take two consecutive doubles per row, like the batch output arrays.
+ */
+public final class BufferColumn {
+
+	private final ByteBuffer buffer;
+	private final int offset;
+	private final int stride;
+
+	public BufferColumn(ByteBuffer buffer, int offset, int stride) {
+		if (buffer == null)
+			throw new IllegalArgumentException("Buffer cannot be null");
+		if (offset < 0 || stride <= 0)
+			throw new IllegalArgumentException("Offset must not be negative and stride must be positive");
+		this.buffer = buffer;
+		this.offset = offset;
+		this.stride = stride;
+	}
+
+	public ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	public int getOffset() {
+		return offset;
+	}
+
+	public int getStride() {
+		return stride;
+	}
+
+	/*
+	 * Checks that rows values of width bytes each fit in the buffer.
+	 */
+	void check(int rows, int width, String name) {
+
+		if (rows > 0 && offset + (long) (rows - 1)*stride + width > buffer.limit())
+			throw new IllegalArgumentException("Column " + name + " is too small for " + rows + " equations");
+
+	}
+
+	double getDouble(int row) {
+		return buffer.getDouble(offset + row*stride);
+	}
+
+	void putDouble(int row, int index, double value) {
+		buffer.putDouble(offset + row*stride + 8*index, value);
+	}
+
+	void putInt(int row, int value) {
+		buffer.putInt(offset + row*stride, value);
+	}
+
+}
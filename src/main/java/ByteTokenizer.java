@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits a byte stream into tokens separated by whitespace or commas.
+ * Runs of whitespace count as one separator, while two commas with nothing but whitespace between them enclose an empty token, as an
+ * empty CSV field does. So do the start of a line and a comma, and a comma and the end of the line or input. Line breaks are tracked so
+ * callers can keep the tokens of one line together. The current token is exposed as a CharSequence view of the read buffer, so
+ * reading a token allocates nothing; the view is only valid until next is called again. Bytes are read as ISO-8859-1, which is exact
+ * for the ASCII numbers the solver accepts.
+ */
+public final class ByteTokenizer implements CharSequence {
+
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	private final InputStream input;
+	private byte[] buffer;
+	private int position, limit; // unread bytes are buffer[position, limit)
+	private int start, end; // current token is buffer[start, end)
+	private boolean comma; // a comma was passed since the last token on this line, so a comma or line end encloses an empty token
+	private boolean lineStart = true; // nothing but whitespace was passed on this line, so a comma encloses an empty token
+	private boolean eof;
+
+	public ByteTokenizer(InputStream input) {
+		this(input, DEFAULT_BUFFER_SIZE);
+	}
+
+	public ByteTokenizer(InputStream input, int bufferSize) {
+		if (input == null)
+			throw new IllegalArgumentException("Input cannot be null");
+		if (bufferSize < 1)
+			throw new IllegalArgumentException("Buffer size must be positive");
+		this.input = input;
+		this.buffer = new byte[bufferSize];
+	}
+
+	/*
+	 * Advances to the next token, moving on to later lines if needed. Returns false when the input has no more tokens.
+	 */
+	public boolean next() throws IOException {
+
+		return advance(true);
+
+	}
+
+	/*
+	 * Advances to the next token on the current line. Returns false at the end of the line, which is left unread so that next moves
+	 * past it, or at the end of the input.
+	 */
+	public boolean nextInLine() throws IOException {
+
+		return advance(false);
+
+	}
+
+	private boolean advance(boolean acrossLines) throws IOException {
+
+		// skip separators
+		while (true) {
+			if (position == limit && !fill()) {
+				start = end = position;
+				if (!comma) return false;
+				// trailing comma: the last field of the input is empty
+				comma = false;
+				return true;
+			}
+			byte b = buffer[position];
+			if (b == '\n') {
+				if (comma) {
+					// trailing comma: the token is empty and the line break is left for the next call
+					start = end = position;
+					comma = false;
+					return true;
+				}
+				if (!acrossLines) {
+					start = end = position;
+					return false;
+				}
+				lineStart = true;
+			} else if (b == ',') {
+				if (comma || lineStart) {
+					// empty field: the token is empty and this comma opens the next field
+					start = end = position++;
+					comma = true;
+					lineStart = false;
+					return true;
+				}
+				comma = true;
+			} else if (!isSeparator(b)) {
+				break;
+			}
+			position++;
+		}
+
+		// scan the token, refilling without losing its start
+		int offset = 0;
+		while (true) {
+			while (position + offset < limit && !isSeparator(buffer[position + offset])) offset++;
+			if (position + offset < limit || !fill()) break;
+		}
+		start = position;
+		end = position + offset;
+		position = end;
+		comma = false;
+		lineStart = false;
+		return true;
+
+	}
+
+	/*
+	 * Returns true if another token may be read without blocking: either the buffer holds more than separators, or the input has bytes
+	 * available. Commas are left in place, since they decide whether an empty token follows, and so is a line break after a comma.
+	 */
+	public boolean hasPendingInput() throws IOException {
+
+		while (position < limit && buffer[position] != ',' && isSeparator(buffer[position])) {
+			if (buffer[position] == '\n') {
+				if (comma) return true;
+				lineStart = true;
+			}
+			position++;
+		}
+		return comma || position < limit || input.available() > 0;
+
+	}
+
+	/*
+	 * Reads more bytes, keeping the unread part of the buffer. Returns false at the end of the input.
+	 */
+	private boolean fill() throws IOException {
+
+		if (eof) return false;
+
+		// move unread bytes to the front, growing the buffer for very long tokens
+		int unread = limit - position;
+		if (unread == buffer.length) {
+			byte[] larger = new byte[buffer.length * 2];
+			System.arraycopy(buffer, position, larger, 0, unread);
+			buffer = larger;
+		} else {
+			System.arraycopy(buffer, position, buffer, 0, unread);
+		}
+		position = 0;
+		limit = unread;
+
+		int read = input.read(buffer, limit, buffer.length - limit);
+		if (read < 0) {
+			eof = true;
+			return false;
+		}
+		limit += read;
+		return true;
+
+	}
+
+	private static boolean isSeparator(byte b) {
+		return b == ' ' || b == ',' || b == '\n' || b == '\r' || b == '\t';
+	}
+
+	@Override
+	public int length() {
+		return end - start;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= end - start)
+			throw new IndexOutOfBoundsException("Index " + index + " outside token of length " + (end - start));
+		return (char) (buffer[start + index] & 0xFF);
+	}
+
+	@Override
+	public CharSequence subSequence(int from, int to) {
+		return toString().substring(from, to);
+	}
+
+	@Override
+	public String toString() {
+		return new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+	}
+
+}
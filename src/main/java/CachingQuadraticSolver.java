@@ -0,0 +1,224 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A Quadratic Equation Solver that remembers the roots of recently solved equations.
+ * Scalar multiples (ka, kb, kc) have the same roots as (a, b, c), so equations are keyed on the normalized coefficients (b/a, c/a).
+ * A miss solves the coefficients as given, so the first equation with a key and its exact repeats get bit-identical results to a plain
+ * QuadraticSolver. A multiple that hits gets the cached roots of the equation first seen, which can differ from solving the multiple
+ * directly in the last bits, and it succeeds even where solving it directly would overflow or underflow. Failures are not cached, since
+ * another multiple of a failed equation may well succeed. The cache is set-associative with a few ways per set and least recently used
+ * eviction within a set; sets are guarded by striped locks so concurrent callers rarely contend.
+ */
+public class CachingQuadraticSolver extends QuadraticSolver {
+
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	static final int WAYS = 4; // entries per set
+	private static final int MAX_STRIPES = 64;
+
+	// entry state
+	private static final int COMPLEX = 1;
+
+	private final int setMask;
+	private final Object[] stripes;
+
+	// one slot per entry, entry i of set s lives at s*WAYS + i
+	private final long[] keyP, keyQ;
+	private final double[] real1, real2, imaginary;
+	private final int[] flags; // COMPLEX bit
+	private final long[] used; // access stamp, zero if the slot is empty
+	private final long[] clock; // last stamp handed out per set
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/*
+	 * Creates a cache for the default number of equations in front of the seeded Newton solver.
+	 */
+	public CachingQuadraticSolver() {
+		this(SqrtStrategy.SEEDED_NEWTON, DEFAULT_CAPACITY);
+	}
+
+	/*
+	 * Creates a cache holding at least capacity equations, rounded up to a power of two.
+	 */
+	public CachingQuadraticSolver(SqrtStrategy sqrt, int capacity) {
+		this(sqrt, capacity, false);
+	}
+
+	/*
+	 * Creates a cache in front of a solver that, if scaling is set, retries equations whose discriminant overflows or underflows.
+	 */
+	public CachingQuadraticSolver(SqrtStrategy sqrt, int capacity, boolean scaling) {
+		super(sqrt, scaling);
+		if (capacity < 1 || capacity > 1 << 28)
+			throw new IllegalArgumentException("Capacity must be between 1 and 2^28");
+
+		int needed = (capacity + WAYS - 1) / WAYS;
+		int sets = (needed == 1) ? 1 : Integer.highestOneBit(needed - 1) << 1;
+		int slots = sets*WAYS;
+		setMask = sets - 1;
+		stripes = new Object[Math.min(sets, MAX_STRIPES)];
+		for (int i = 0; i < stripes.length; i++) stripes[i] = new Object();
+
+		keyP = new long[slots];
+		keyQ = new long[slots];
+		real1 = new double[slots];
+		real2 = new double[slots];
+		imaginary = new double[slots];
+		flags = new int[slots];
+		used = new long[slots];
+		clock = new long[sets];
+	}
+
+	/*
+	 * Returns the maximum number of equations held at once.
+	 */
+	public int getCapacity() {
+		return used.length;
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/*
+	 * Forgets every cached equation. Counters are not reset.
+	 */
+	public void clear() {
+
+		for (int set = 0; set <= setMask; set++) {
+			synchronized (stripes[set % stripes.length]) {
+				for (int slot = set*WAYS; slot < (set + 1)*WAYS; slot++) used[slot] = 0;
+				clock[set] = 0;
+			}
+		}
+
+	}
+
+	/*
+	 * Every equation goes through the cache, so batches are never handed to the lane-parallel kernel.
+	 */
+	@Override
+	void solveRange(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status, int from, int to) {
+
+		solveEach(a, b, c, real, imaginary, count, status, from, to);
+
+	}
+
+	/*
+	 * A hit returns the roots of a multiple, whose discriminant was computed from other coefficients.
+	 */
+	@Override
+	boolean classifiesBySign() {
+		return false;
+	}
+
+	/*
+	 * Looks the normalized equation up and solves the equation as given on a miss. Equations whose normalized coefficients are not
+	 * finite, such as a == 0, bypass the cache.
+	 */
+	@Override
+	int solveInto(double a, double b, double c, QuadraticRoots roots) {
+
+		double p = b/a + 0.0; // adding zero turns -0.0 into 0.0 so both share a key
+		double q = c/a + 0.0;
+		if (!Double.isFinite(p) || !Double.isFinite(q))
+			return super.solveInto(a, b, c, roots);
+
+		long kp = Double.doubleToRawLongBits(p);
+		long kq = Double.doubleToRawLongBits(q);
+		int set = hash(kp, kq) & setMask;
+		Object lock = stripes[set % stripes.length];
+
+		synchronized (lock) {
+			int slot = find(set, kp, kq);
+			if (slot >= 0) {
+				used[slot] = ++clock[set];
+				hits.increment();
+				return load(slot, roots);
+			}
+		}
+
+		// solve outside the lock so other sets of the stripe are not held up
+		misses.increment();
+		int status = super.solveInto(a, b, c, roots);
+		if (status != Quadratic.STATUS_OK) return status;
+
+		synchronized (lock) {
+			if (find(set, kp, kq) < 0) store(set, kp, kq, roots);
+		}
+		return status;
+
+	}
+
+	/*
+	 * Returns the slot holding the key in a set, or -1.
+	 */
+	private int find(int set, long kp, long kq) {
+
+		for (int slot = set*WAYS; slot < (set + 1)*WAYS; slot++) {
+			if (used[slot] != 0 && keyP[slot] == kp && keyQ[slot] == kq) return slot;
+		}
+		return -1;
+
+	}
+
+	/*
+	 * Stores a result in an empty slot of the set, or in place of its least recently used entry.
+	 */
+	private void store(int set, long kp, long kq, QuadraticRoots roots) {
+
+		int victim = set*WAYS;
+		for (int slot = victim; slot < (set + 1)*WAYS; slot++) {
+			if (used[slot] < used[victim]) victim = slot;
+		}
+		if (used[victim] != 0) evictions.increment();
+
+		keyP[victim] = kp;
+		keyQ[victim] = kq;
+		real1[victim] = roots.getReal1();
+		real2[victim] = roots.getReal2();
+		imaginary[victim] = roots.getImaginary1();
+		flags[victim] = roots.isComplex() ? COMPLEX : 0;
+		used[victim] = ++clock[set];
+
+	}
+
+	/*
+	 * Copies cached roots into the holder and returns STATUS_OK.
+	 */
+	private int load(int slot, QuadraticRoots roots) {
+
+		if ((flags[slot] & COMPLEX) != 0) {
+			roots.setComplex(real1[slot], imaginary[slot]);
+		} else {
+			roots.setReal(real1[slot], real2[slot]);
+		}
+		return Quadratic.STATUS_OK;
+
+	}
+
+	/*
+	 * Mixes both keys so that nearby coefficients spread over the sets.
+	 */
+	private static int hash(long kp, long kq) {
+
+		long h = kp*0x9E3779B97F4A7C15L + kq;
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		return (int) h;
+
+	}
+
+}
@@ -0,0 +1,192 @@
+/**
+ * A Quadratic Equation Solver for complex coefficients, taken as separate real and imaginary parts.
+ * The same mixed approach as the real solver avoids subtractive cancellation: q = -(b + s*sqrt(b^2 - 4ac))/2 with the sign s chosen so
+ * b and s*sqrt(b^2 - 4ac) point the same way, then x1 = q/a and x2 = c/q. The complex square root is computed from the modulus without
+ * forming a difference of nearly equal values, and complex division uses Smith's algorithm, so neither overflows early. All arithmetic is
+ * on primitives written straight into the output, so nothing is allocated per equation.
+ */
+public final class ComplexQuadraticSolver {
+
+	// beyond these magnitudes the complex square root is computed on scaled parts
+	private static final double MAX_UNSCALED = 0x1p1020;
+	private static final double MIN_UNSCALED = 0x1p-1000;
+
+	private final SqrtStrategy sqrt;
+
+	/*
+	 * Creates a solver that uses the fast converging seeded Newton square root.
+	 */
+	public ComplexQuadraticSolver() {
+		this(SqrtStrategy.SEEDED_NEWTON);
+	}
+
+	public ComplexQuadraticSolver(SqrtStrategy sqrt) {
+		if (sqrt == null)
+			throw new IllegalArgumentException("Square root strategy cannot be null");
+		this.sqrt = sqrt;
+	}
+
+	public SqrtStrategy getSqrtStrategy() {
+		return sqrt;
+	}
+
+	/*
+	 * Solves ax^2 + bx + c = 0 for a = ar + ai*i, b = br + bi*i and c = cr + ci*i into a reusable holder and returns STATUS_OK or the
+	 * reason it failed.
+	 */
+	public int solve(double ar, double ai, double br, double bi, double cr, double ci, ComplexRoots roots) {
+
+		int status = solveInto(ar, ai, br, bi, cr, ci, roots.real, roots.imaginary, 0);
+		if (status == Quadratic.STATUS_OK) {
+			roots.setCount(count(roots.real, roots.imaginary, 0));
+		} else {
+			roots.clear();
+		}
+		return status;
+
+	}
+
+	/*
+	 * Solves a batch of equations given as real and imaginary coefficient columns. The roots of equation i are written to
+	 * real[2*i] + imaginary[2*i]*i and real[2*i+1] + imaginary[2*i+1]*i, the number of distinct roots to count[i] and the outcome to
+	 * status[i], like the real batch solver. Failed equations get NaN roots and a count of zero.
+	 */
+	public void solve(double[] ar, double[] ai, double[] br, double[] bi, double[] cr, double[] ci, double[] real, double[] imaginary,
+			int[] count, int[] status) {
+
+		int n = ar.length;
+		if (ai.length != n || br.length != n || bi.length != n || cr.length != n || ci.length != n)
+			throw new IllegalArgumentException("Coefficient arrays must have the same length");
+		if (real.length < 2*n || imaginary.length < 2*n || count.length < n || status.length < n)
+			throw new IllegalArgumentException("Output arrays are too small for " + n + " equations");
+
+		for (int i = 0; i < n; i++) {
+			status[i] = solveInto(ar[i], ai[i], br[i], bi[i], cr[i], ci[i], real, imaginary, i);
+			if (status[i] == Quadratic.STATUS_OK) {
+				count[i] = count(real, imaginary, i);
+			} else {
+				real[2*i] = real[2*i + 1] = imaginary[2*i] = imaginary[2*i + 1] = Double.NaN;
+				count[i] = 0;
+			}
+		}
+
+	}
+
+	private static int count(double[] real, double[] imaginary, int i) {
+		return (real[2*i] == real[2*i + 1] && imaginary[2*i] == imaginary[2*i + 1]) ? 1 : 2;
+	}
+
+	/*
+	 * Solves one equation into slots 2*i and 2*i+1 of the output arrays and returns its status code. The slots are also used as
+	 * scratch space, so they hold garbage when the equation fails.
+	 */
+	private int solveInto(double ar, double ai, double br, double bi, double cr, double ci, double[] real, double[] imaginary, int i) {
+
+		int first = 2*i, second = 2*i + 1;
+
+		// not a quadratic equation
+		if (ar == 0 && ai == 0) return failureStatus(ar, ai, br, bi, cr, ci);
+
+		double bbr = br*br - bi*bi, bbi = 2*br*bi;
+		double dr = bbr - 4*(ar*cr - ai*ci);
+		double di = bbi - 4*(ar*ci + ai*cr);
+
+		// check for overflow and 4ac too small to change b^2, as the real solver does
+		if (!Double.isFinite(dr) || !Double.isFinite(di) || (dr == bbr && di == bbi && (cr != 0 || ci != 0)))
+			return failureStatus(ar, ai, br, bi, cr, ci);
+
+		sqrt(dr, di, real, imaginary, first);
+		double sr = real[first], si = imaginary[first];
+
+		// mixed approach to avoid subtractive cancellation
+		if (br*sr + bi*si < 0) {
+			sr = -sr;
+			si = -si;
+		}
+		double qr = (-0.5) * (br + sr);
+		double qi = (-0.5) * (bi + si);
+
+		if (qr == 0 && qi == 0) {
+			// b and the discriminant are zero, so c is too
+			real[first] = real[second] = imaginary[first] = imaginary[second] = 0;
+		} else {
+			divide(qr, qi, ar, ai, real, imaginary, first);
+			divide(cr, ci, qr, qi, real, imaginary, second);
+		}
+
+		if (!Double.isFinite(real[first]) || !Double.isFinite(imaginary[first]) || !Double.isFinite(real[second])
+				|| !Double.isFinite(imaginary[second]))
+			return Quadratic.STATUS_OVERFLOW;
+		return Quadratic.STATUS_OK;
+
+	}
+
+	/*
+	 * Computes the principal square root of x + y*i into real[slot] and imaginary[slot]. The larger part is sqrt((|x| + |z|)/2), which
+	 * adds two non-negative values, and the smaller part is derived from it by division, so no cancellation occurs.
+	 */
+	void sqrt(double x, double y, double[] real, double[] imaginary, int slot) {
+
+		if (x == 0 && y == 0) {
+			real[slot] = 0;
+			imaginary[slot] = y;
+			return;
+		}
+
+		// keep |x| + |z| from overflowing or underflowing, scaling by an even power of two so the root scales exactly
+		double magnitude = Math.max(Math.abs(x), Math.abs(y));
+		int scale = (magnitude > MAX_UNSCALED) ? -2 : (magnitude < MIN_UNSCALED) ? 108 : 0;
+		x = Math.scalb(x, scale);
+		y = Math.scalb(y, scale);
+
+		double t = sqrt.sqrt((Math.abs(x) + Math.hypot(x, y)) / 2);
+		if (x >= 0) {
+			real[slot] = Math.scalb(t, -scale/2);
+			imaginary[slot] = Math.scalb(y / (2*t), -scale/2);
+		} else {
+			real[slot] = Math.scalb(Math.abs(y) / (2*t), -scale/2);
+			imaginary[slot] = Math.scalb(Math.copySign(t, y), -scale/2);
+		}
+
+	}
+
+	/*
+	 * Computes (nr + ni*i) / (dr + di*i) into real[slot] and imaginary[slot] with Smith's algorithm, which divides by the larger part of
+	 * the denominator so its squared modulus is never formed.
+	 */
+	static void divide(double nr, double ni, double dr, double di, double[] real, double[] imaginary, int slot) {
+
+		if (Math.abs(dr) >= Math.abs(di)) {
+			double ratio = di / dr;
+			double denominator = dr + di*ratio;
+			real[slot] = (nr + ni*ratio) / denominator;
+			imaginary[slot] = (ni - nr*ratio) / denominator;
+		} else {
+			double ratio = dr / di;
+			double denominator = dr*ratio + di;
+			real[slot] = (nr*ratio + ni) / denominator;
+			imaginary[slot] = (ni*ratio - nr) / denominator;
+		}
+
+	}
+
+	/*
+	 * Tells why an equation failed, with the same status codes as the real solver.
+	 */
+	private static int failureStatus(double ar, double ai, double br, double bi, double cr, double ci) {
+
+		if (Double.isNaN(ar) || Double.isNaN(ai) || Double.isNaN(br) || Double.isNaN(bi) || Double.isNaN(cr) || Double.isNaN(ci))
+			return Quadratic.STATUS_NAN_INPUT;
+		if (ar == 0 && ai == 0) return Quadratic.STATUS_NOT_ENOUGH_PRECISION; // not a quadratic equation
+		if (Double.isInfinite(ar) || Double.isInfinite(ai) || Double.isInfinite(br) || Double.isInfinite(bi) || Double.isInfinite(cr)
+				|| Double.isInfinite(ci))
+			return Quadratic.STATUS_OVERFLOW;
+		double bb = br*br + bi*bi;
+		double ac = Math.abs(ar*cr) + Math.abs(ai*ci) + Math.abs(ar*ci) + Math.abs(ai*cr);
+		if (Double.isInfinite(bb + 4*ac)) return Quadratic.STATUS_OVERFLOW; // bounds both parts of the discriminant
+		if (bb == 0) return Quadratic.STATUS_UNDERFLOW;
+		return Quadratic.STATUS_CANCELLATION;
+
+	}
+
+}
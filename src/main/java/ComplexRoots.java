@@ -0,0 +1,94 @@
+/**
+ * Roots of a quadratic equation with complex coefficients as computed by ComplexQuadraticSolver.
+ * The two roots are independent complex numbers, not a conjugate pair, and are held as primitive real and imaginary parts. An instance can
+ * be passed back to the solver and reused as a mutable holder.
+ */
+public final class ComplexRoots {
+
+	// x1 at index 0 and x2 at index 1, written in place by the solver
+	final double[] real = new double[2];
+	final double[] imaginary = new double[2];
+	private int count;
+
+	public ComplexRoots() {
+		clear();
+	}
+
+	/*
+	 * Records how many distinct roots the solver wrote, or zero if it failed.
+	 */
+	void setCount(int count) {
+		this.count = count;
+	}
+
+	/*
+	 * Marks the holder as not containing any roots.
+	 */
+	void clear() {
+		real[0] = real[1] = imaginary[0] = imaginary[1] = Double.NaN;
+		count = 0;
+	}
+
+	public double getReal1() {
+		return real[0];
+	}
+
+	public double getImaginary1() {
+		return imaginary[0];
+	}
+
+	public double getReal2() {
+		return real[1];
+	}
+
+	public double getImaginary2() {
+		return imaginary[1];
+	}
+
+	/*
+	 * Returns the number of distinct roots, or zero if no roots have been stored.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/*
+	 * Renders the roots like QuadraticRoots does, as "x1 = ..." and "x2 = ..." lines.
+	 */
+	@Override
+	public String toString() {
+
+		if (count == 0) return "no roots";
+
+		StringBuilder output = new StringBuilder();
+		DoubleFormatter formatter = new DoubleFormatter();
+		output.append("x1 = ");
+		appendRoot(output, formatter, real[0], imaginary[0]);
+		// don't print the same root twice
+		if (count == 2) {
+			output.append("\nx2 = ");
+			appendRoot(output, formatter, real[1], imaginary[1]);
+		}
+		return output.toString();
+
+	}
+
+	private static void appendRoot(StringBuilder output, DoubleFormatter formatter, double real, double imaginary) {
+
+		// don't print redundant zeros and signs
+		if (imaginary == 0) {
+			formatter.append(real, output);
+			return;
+		}
+		if (real != 0) {
+			formatter.append(real, output);
+			output.append(imaginary < 0 ? " - " : " + ");
+			imaginary = Math.abs(imaginary);
+		}
+		if (imaginary == -1) output.append('-');
+		else if (imaginary != 1) formatter.append(imaginary, output);
+		output.append('i');
+
+	}
+
+}
@@ -0,0 +1,252 @@
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Formats doubles for the Quadratic Equation Solver without creating garbage.
+ * Integral values in the range of a long are written as plain integers. Any other value is written with the shortest decimal digits
+ * that parse back to the same double, computed with the Schubfach algorithm, in the same notation Double.toString uses. The static
+ * method writes into a char array; an instance keeps a scratch buffer for writing into a StringBuilder or ByteBuffer, and is not
+ * thread-safe.
+ */
+public final class DoubleFormatter {
+
+	public static final int MAX_LENGTH = 24; // "-2.2250738585072014E-308"
+
+	private static final int P = 53; // precision of a double, including the hidden bit
+	private static final int Q_MIN = -1074; // exponent of the smallest subnormal
+	private static final long C_MIN = 1L << (P - 1);
+	private static final int C_TINY = 3; // subnormal significands below this need an extra digit
+	private static final int K_MIN = -324, K_MAX = 292; // range of decimal exponents used by the algorithm
+	private static final long MASK_63 = (1L << 63) - 1;
+
+	// 126 bit approximations of the powers of ten 10^-k, split into two 63 bit halves
+	private static final long[] G = new long[2*(K_MAX - K_MIN + 1)];
+	static {
+		for (int k = K_MIN; k <= K_MAX; k++) {
+			int r = flog2pow10(-k) - 125;
+			BigInteger power = BigInteger.TEN.pow(Math.abs(k));
+			BigInteger g = (k <= 0)
+					? (r >= 0 ? power.shiftRight(r) : power.shiftLeft(-r))
+					: BigInteger.ONE.shiftLeft(-r).divide(power);
+			g = g.add(BigInteger.ONE);
+			G[2*(k - K_MIN)] = g.shiftRight(63).longValue();
+			G[2*(k - K_MIN) + 1] = g.longValue() & MASK_63;
+		}
+	}
+
+	private final char[] scratch = new char[MAX_LENGTH];
+
+	/*
+	 * Appends the formatted value to a StringBuilder.
+	 */
+	public void append(double value, StringBuilder builder) {
+		builder.append(scratch, 0, format(value, scratch, 0));
+	}
+
+	/*
+	 * Puts the formatted value into a ByteBuffer as ASCII bytes.
+	 */
+	public void append(double value, ByteBuffer buffer) {
+		int length = format(value, scratch, 0);
+		for (int i = 0; i < length; i++) buffer.put((byte) scratch[i]);
+	}
+
+	/*
+	 * Writes the formatted value into the array starting at offset, which needs room for MAX_LENGTH characters. Returns the number of
+	 * characters written.
+	 */
+	public static int format(double value, char[] destination, int offset) {
+
+		// integer fast path, which also prints negative zero as 0
+		if (value >= -0x1p63 && value < 0x1p63 && Math.floor(value) == value)
+			return formatLong((long) value, destination, offset);
+
+		if (Double.isNaN(value))
+			return write("NaN", destination, offset);
+		if (Double.isInfinite(value))
+			return write(value > 0 ? "Infinity" : "-Infinity", destination, offset);
+
+		long bits = Double.doubleToRawLongBits(value);
+		long t = bits & (C_MIN - 1);
+		int bq = (int) (bits >>> (P - 1)) & 0x7FF;
+		int position = offset;
+		if (bits < 0) destination[position++] = '-';
+
+		if (bq != 0)
+			position += shortest(bq - 1075, C_MIN | t, 0, destination, position);
+		else
+			position += (t < C_TINY) ? shortest(Q_MIN, 10*t, -1, destination, position) : shortest(Q_MIN, t, 0, destination, position);
+
+		return position - offset;
+
+	}
+
+	/*
+	 * Finds the shortest decimal f * 10^e in the rounding interval of c * 2^q and writes it. Returns the number of characters written.
+	 */
+	private static int shortest(int q, long c, int dk, char[] destination, int offset) {
+
+		int out = (int) c & 1;
+		long cb = c << 2;
+		long cbr = cb + 2;
+		long cbl;
+		int k;
+		if (c != C_MIN | q == Q_MIN) {
+			cbl = cb - 2;
+			k = flog10pow2(q);
+		} else {
+			// the interval is asymmetric at powers of two
+			cbl = cb - 1;
+			k = flog10threeQuartersPow2(q);
+		}
+		int h = q + flog2pow10(-k) + 2;
+
+		long g1 = G[2*(k - K_MIN)];
+		long g0 = G[2*(k - K_MIN) + 1];
+
+		long vb = roundToOdd(g1, g0, cb << h);
+		long vbl = roundToOdd(g1, g0, cbl << h);
+		long vbr = roundToOdd(g1, g0, cbr << h);
+
+		// try one digit less first
+		long s = vb >> 2;
+		if (s >= 100) {
+			long sp10 = 10*Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+			long tp10 = sp10 + 10;
+			boolean upin = vbl + out <= sp10 << 2;
+			boolean wpin = (tp10 << 2) + out <= vbr;
+			if (upin != wpin)
+				return writeDecimal(upin ? sp10 : tp10, k, destination, offset);
+		}
+
+		long t = s + 1;
+		boolean uin = vbl + out <= s << 2;
+		boolean win = (t << 2) + out <= vbr;
+		if (uin != win)
+			return writeDecimal(uin ? s : t, k + dk, destination, offset);
+
+		// both candidates are in the interval, pick the closest
+		long cmp = vb - ((s + t) << 1);
+		return writeDecimal((cmp < 0 || cmp == 0 && (s & 1) == 0) ? s : t, k + dk, destination, offset);
+
+	}
+
+	/*
+	 * Multiplies the 126 bit g by cp and rounds the upper part to odd.
+	 */
+	private static long roundToOdd(long g1, long g0, long cp) {
+		long x1 = Math.multiplyHigh(g0, cp);
+		long y0 = g1*cp;
+		long y1 = Math.multiplyHigh(g1, cp);
+		long z = (y0 >>> 1) + x1;
+		long vbp = y1 + (z >>> 63);
+		return vbp | ((z & MASK_63) + MASK_63) >>> 63;
+	}
+
+	/*
+	 * Writes f * 10^e like Double.toString, in plain notation between 10^-3 and 10^7 and in e-notation otherwise.
+	 */
+	private static int writeDecimal(long f, int e, char[] destination, int offset) {
+
+		// drop trailing zeros
+		while (f % 10 == 0) {
+			f /= 10;
+			e++;
+		}
+
+		int length = digitCount(f);
+		int exponent = e + length - 1; // position of the decimal point after the first digit
+		int position = offset;
+
+		if (exponent >= -3 && exponent < 7) {
+			if (exponent < 0) {
+				destination[position++] = '0';
+				destination[position++] = '.';
+				for (int i = -1; i > exponent; i--) destination[position++] = '0';
+				position += formatDigits(f, length, destination, position);
+			} else if (length <= exponent + 1) {
+				position += formatDigits(f, length, destination, position);
+				for (int i = length; i <= exponent; i++) destination[position++] = '0';
+				destination[position++] = '.';
+				destination[position++] = '0';
+			} else {
+				// split the digits around the decimal point
+				formatDigits(f, length, destination, position + 1);
+				for (int i = 0; i <= exponent; i++) destination[position + i] = destination[position + i + 1];
+				destination[position + exponent + 1] = '.';
+				position += length + 1;
+			}
+		} else {
+			// one digit before the decimal point
+			formatDigits(f, length, destination, position + 1);
+			destination[position] = destination[position + 1];
+			destination[position + 1] = '.';
+			position += (length == 1) ? 2 : length + 1;
+			if (length == 1) destination[position++] = '0';
+			destination[position++] = 'E';
+			if (exponent < 0) {
+				destination[position++] = '-';
+				exponent = -exponent;
+			}
+			position += formatDigits(exponent, digitCount(exponent), destination, position);
+		}
+
+		return position - offset;
+
+	}
+
+	/*
+	 * Writes a long in plain decimal notation.
+	 */
+	private static int formatLong(long value, char[] destination, int offset) {
+
+		if (value == Long.MIN_VALUE)
+			return write("-9223372036854775808", destination, offset);
+
+		int position = offset;
+		if (value < 0) {
+			destination[position++] = '-';
+			value = -value;
+		}
+		return position - offset + formatDigits(value, digitCount(value), destination, position);
+
+	}
+
+	/*
+	 * Writes the given number of digits of a non-negative value.
+	 */
+	private static int formatDigits(long value, int length, char[] destination, int offset) {
+		for (int i = offset + length - 1; i >= offset; i--) {
+			destination[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		return length;
+	}
+
+	private static int digitCount(long value) {
+		int count = 1;
+		while (value >= 10) {
+			value /= 10;
+			count++;
+		}
+		return count;
+	}
+
+	private static int write(String text, char[] destination, int offset) {
+		text.getChars(0, text.length(), destination, offset);
+		return text.length();
+	}
+
+	private static int flog10pow2(int e) {
+		return (int) (e * 661_971_961_083L >> 41);
+	}
+
+	private static int flog10threeQuartersPow2(int e) {
+		return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+	}
+
+	private static int flog2pow10(int e) {
+		return (int) (e * 913_124_641_741L >> 38);
+	}
+
+}
@@ -0,0 +1,146 @@
+import java.text.DecimalFormat;
+
+/**
+ * Validates decimal coefficients for the Quadratic Equation Solver without allocating.
+ * A value is accepted when its text is exactly how Java would print the parsed double, either in plain notation (with ".0" optional
+ * for integers) or as Double.toString prints it in e-notation. Otherwise the value could not be stored without losing precision and
+ * an exception is thrown. Inputs with at most 15 significant digits and a magnitude below 2^53 are decided by a single scan of the
+ * characters, because such decimals always round-trip through a double. Longer, larger or unusual inputs fall back to formatting
+ * the parsed value.
+ */
+final class InputValidator {
+
+	private static final int EXACT_DIGITS = 15; // every decimal with this many significant digits round-trips through a double
+	private static final int MAX_FRACTION_DIGITS = 100; // fraction digits printed by the plain format
+	private static final int MAX_EXACT_POWER = 22; // largest power of ten that is exact as a double
+	private static final double MAX_SCANNED = 0x1p53; // Double.toString does not always print shortest digits above this
+
+	private static final double[] POWERS_OF_TEN = new double[MAX_EXACT_POWER + 1];
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i <= MAX_EXACT_POWER; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+	}
+
+	// format value to decimal of (almost) arbitrary length
+	private static final ThreadLocal<DecimalFormat> DECIMAL = ThreadLocal.withInitial(() ->
+			new DecimalFormat("###################################################################################################0.0" +
+					"###################################################################################################"));
+
+	private InputValidator() {
+	}
+
+	/*
+	 * Parses and validates a coefficient. Throws an exception if the value cannot be represented without losing precision, or
+	 * NumberFormatException if it is not a number at all.
+	 */
+	static double validate(CharSequence input) throws NotEnoughPrecisionException {
+
+		int length = input.length();
+		int i = 0;
+		boolean negative = length > 0 && input.charAt(0) == '-';
+		if (negative) i++;
+
+		// integer part is "0" or digits without a leading zero
+		int integerStart = i;
+		while (i < length && isDigit(input.charAt(i))) i++;
+		int integerEnd = i;
+		if (integerEnd == integerStart || (input.charAt(integerStart) == '0' && integerEnd - integerStart > 1))
+			return validateByFormatting(input);
+
+		// fraction part is "0" or digits without a trailing zero
+		int fractionDigits = 0;
+		if (i < length && input.charAt(i) == '.') {
+			int fractionStart = ++i;
+			while (i < length && isDigit(input.charAt(i))) i++;
+			fractionDigits = i - fractionStart;
+			if (fractionDigits == 0 || (input.charAt(i - 1) == '0' && fractionDigits > 1))
+				return validateByFormatting(input);
+		}
+		int digitsEnd = i;
+
+		// e-notation is only printed with one non-zero integer digit, a fraction and an exponent outside [-3, 6]
+		int exponent = 0;
+		if (i < length && input.charAt(i) == 'E') {
+			if (integerEnd - integerStart != 1 || input.charAt(integerStart) == '0' || fractionDigits == 0)
+				return validateByFormatting(input);
+			boolean negativeExponent = ++i < length && input.charAt(i) == '-';
+			if (negativeExponent) i++;
+			int exponentStart = i;
+			while (i < length && isDigit(input.charAt(i)) && i - exponentStart < 3) exponent = exponent*10 + (input.charAt(i++) - '0');
+			if (i == exponentStart || input.charAt(exponentStart) == '0')
+				return validateByFormatting(input);
+			if (negativeExponent) exponent = -exponent;
+			if (exponent > -4 && exponent < 7)
+				return validateByFormatting(input);
+		}
+		if (i != length)
+			return validateByFormatting(input);
+
+		// the plain format prints no more fraction digits than this, and only plain notation gets here with a zero exponent
+		if (exponent == 0 && fractionDigits > MAX_FRACTION_DIGITS)
+			throw NotEnoughPrecisionException.forStatus(Quadratic.STATUS_NOT_ENOUGH_PRECISION);
+
+		// collect the significant digits, so the value is digits * 10^scale
+		long digits = 0;
+		int significant = 0, zeros = 0;
+		for (int k = integerStart; k < digitsEnd; k++) {
+			char ch = input.charAt(k);
+			if (ch == '.') continue;
+			if (ch == '0') {
+				if (significant > 0) zeros++;
+				continue;
+			}
+			significant += zeros + 1;
+			if (significant > EXACT_DIGITS)
+				return validateByFormatting(input);
+			for (; zeros > 0; zeros--) digits *= 10;
+			digits = digits*10 + (ch - '0');
+		}
+		int scale = exponent - fractionDigits + zeros;
+
+		// zero in any accepted notation
+		if (significant == 0)
+			return negative ? -0.0 : 0.0;
+
+		// exact conversion when the power of ten is exact, otherwise let the formatter decide
+		double value;
+		if (scale >= 0 && scale <= MAX_EXACT_POWER)
+			value = digits * POWERS_OF_TEN[scale];
+		else if (scale < 0 && scale >= -MAX_EXACT_POWER)
+			value = digits / POWERS_OF_TEN[-scale];
+		else
+			return validateByFormatting(input);
+		if (value >= MAX_SCANNED)
+			return validateByFormatting(input);
+
+		return negative ? -value : value;
+
+	}
+
+	/*
+	 * Validates the input by converting to type double and comparing it with the formatted value. Allocates, so it is only used for
+	 * inputs the scan cannot decide.
+	 */
+	static double validateByFormatting(CharSequence text) throws NotEnoughPrecisionException {
+
+		// parse the input
+		String input = text.toString();
+		double value = Double.parseDouble(input);
+
+		// append .0 when input is integer
+		String formatted = input;
+		if (input.indexOf('.') == -1) formatted += ".0";
+
+		// if new value is not equal to original, overflow has occurred
+		if (!DECIMAL.get().format(value).equals(formatted) && !Double.toString(value).equals(input)) // toString to validate e-notation
+			throw NotEnoughPrecisionException.forStatus(Quadratic.STATUS_NOT_ENOUGH_PRECISION);
+
+		return value;
+
+	}
+
+	private static boolean isDigit(char ch) {
+		return ch >= '0' && ch <= '9';
+	}
+
+}
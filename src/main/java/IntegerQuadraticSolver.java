@@ -0,0 +1,129 @@
+/**
+ * Exact Quadratic Equation Solver for integer coefficients.
+ * The discriminant b^2 - 4ac is computed exactly in 128-bit arithmetic with Math.multiplyHigh, and its integer square root tells
+ * whether it is a perfect square. If it is, the roots are returned as reduced fractions; otherwise the real part of complex roots is
+ * still exact and the irrational parts are rounded from the exact discriminant. No input within range loses precision, so nothing
+ * is ever rejected except a == 0.
+ */
+public final class IntegerQuadraticSolver {
+
+	// coefficients up to 2^61 keep |b^2 - 4ac| below 2^125, so its square root fits in a long
+	public static final long MAX_COEFFICIENT = 1L << 61;
+
+	private IntegerQuadraticSolver() {
+	}
+
+	/*
+	 * Returns true if a validated coefficient is an integer the exact solver accepts.
+	 */
+	public static boolean isExactInteger(double value) {
+		return Math.abs(value) <= MAX_COEFFICIENT && value == Math.rint(value);
+	}
+
+	/*
+	 * Solves the quadratic equation exactly into a reusable holder and returns STATUS_OK, or STATUS_NOT_ENOUGH_PRECISION if a == 0.
+	 * Throws IllegalArgumentException if a coefficient is larger in magnitude than MAX_COEFFICIENT.
+	 */
+	public static int solve(long a, long b, long c, RationalRoots roots) {
+
+		if (!inRange(a) || !inRange(b) || !inRange(c))
+			throw new IllegalArgumentException("Coefficients must be between -2^61 and 2^61");
+
+		if (a == 0) {
+			roots.clear();
+			return Quadratic.STATUS_NOT_ENOUGH_PRECISION;
+		}
+
+		// b^2 - 4ac as a 128-bit two's complement value high:low
+		long acHigh = Math.multiplyHigh(a, c), acLow = a*c;
+		acHigh = acHigh << 2 | acLow >>> 62;
+		acLow <<= 2;
+		long bbLow = b*b;
+		long low = bbLow - acLow;
+		long high = Math.multiplyHigh(b, b) - acHigh - (Long.compareUnsigned(bbLow, acLow) < 0 ? 1 : 0);
+
+		boolean negative = high < 0;
+		if (negative) {
+			high = (low == 0) ? -high : ~high;
+			low = -low;
+		}
+
+		long root = sqrt(high, low);
+		boolean perfect = root*root == low && Math.multiplyHigh(root, root) == high;
+		long twoA = 2*a;
+
+		if (negative) { // complex roots
+			if (perfect) {
+				roots.setComplex(-b, twoA, root, twoA, 0);
+			} else {
+				roots.setComplex(-b, twoA, 0, 0, Math.sqrt(toDouble(high, low)) / twoA);
+			}
+		} else if (perfect) { // rational roots
+			long s = Quadratic.sign(b)*root;
+			roots.setRational(-b - s, twoA, -b + s, twoA);
+		} else { // irrational roots from the exact discriminant, using the mixed approach to avoid subtractive cancellation
+			double q = (-0.5) * (b + Quadratic.sign(b)*Math.sqrt(toDouble(high, low)));
+			roots.setIrrational(q/a, c/q);
+		}
+
+		return Quadratic.STATUS_OK;
+
+	}
+
+	/*
+	 * Solves an equation whose coefficients are exact integers into a floating-point holder. See solve(long, long, long, RationalRoots).
+	 */
+	public static int solve(double a, double b, double c, QuadraticRoots roots) {
+
+		if (!isExactInteger(a) || !isExactInteger(b) || !isExactInteger(c))
+			throw new IllegalArgumentException("Coefficients must be integers between -2^61 and 2^61");
+
+		RationalRoots exact = new RationalRoots();
+		int status = solve((long) a, (long) b, (long) c, exact);
+		exact.copyTo(roots);
+		return status;
+
+	}
+
+	private static boolean inRange(long value) {
+		return value >= -MAX_COEFFICIENT && value <= MAX_COEFFICIENT;
+	}
+
+	/*
+	 * Computes the integer square root of a non-negative 128-bit value below 2^125.
+	 */
+	static long sqrt(long high, long low) {
+
+		long root = (long) Math.sqrt(toDouble(high, low));
+
+		// the double estimate is within a few hundred of the root, one exact Newton step brings it within one
+		if (root > 0) {
+			long squareLow = root*root;
+			long errorHigh = high - Math.multiplyHigh(root, root) - (Long.compareUnsigned(low, squareLow) < 0 ? 1 : 0);
+			root += (long) Math.floor(toDouble(errorHigh, low - squareLow) / (2.0*root));
+		}
+
+		while (compareSquare(root, high, low) > 0) root--;
+		while (compareSquare(root + 1, high, low) <= 0) root++;
+		return root;
+
+	}
+
+	/*
+	 * Compares root^2 with the 128-bit value high:low.
+	 */
+	private static int compareSquare(long root, long high, long low) {
+
+		int result = Long.compare(Math.multiplyHigh(root, root), high);
+		return (result != 0) ? result : Long.compareUnsigned(root*root, low);
+
+	}
+
+	/*
+	 * Converts a 128-bit two's complement value to the nearest double, give or take an ulp.
+	 */
+	private static double toDouble(long high, long low) {
+		return high*0x1p64 + ((double) (low >>> 1) * 2 + (low & 1));
+	}
+
+}
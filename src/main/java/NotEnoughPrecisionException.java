@@ -3,12 +3,52 @@
  * Thrown when precision is lost during calculation
  */
 public class NotEnoughPrecisionException extends Exception {
+
+    // one stackless instance per failure status, indexed by status code
+    private static final NotEnoughPrecisionException[] STACKLESS = {
+        null,
+        new NotEnoughPrecisionException(Quadratic.STATUS_NOT_ENOUGH_PRECISION, "Not enough precision to calculate an accurate solution", false),
+        new NotEnoughPrecisionException(Quadratic.STATUS_NAN_INPUT, "A coefficient is not a number", false),
+        new NotEnoughPrecisionException(Quadratic.STATUS_OVERFLOW, "The calculation overflowed", false),
+        new NotEnoughPrecisionException(Quadratic.STATUS_UNDERFLOW, "The calculation underflowed", false),
+        new NotEnoughPrecisionException(Quadratic.STATUS_CANCELLATION, "4ac is too small to change b^2", false)
+    };
+
+    private final int status;
     
     public NotEnoughPrecisionException() {
         super("Not enough precision to calculate an accurate solution");
+        status = Quadratic.STATUS_NOT_ENOUGH_PRECISION;
     }
     
     public NotEnoughPrecisionException(String message) {
         super(message);
+        status = Quadratic.STATUS_NOT_ENOUGH_PRECISION;
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates an exception for a failure status, without a stack trace if writableStackTrace is false
+     */
+    protected NotEnoughPrecisionException(int status, String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.status = status;
+    }
+
+    /**
+     * Returns the preallocated stackless exception for a failure status. Throwing it costs no allocation or stack walk, so it suits
+     * hot loops where failures are common.
+     */
+    public static NotEnoughPrecisionException forStatus(int status) {
+        if (status <= Quadratic.STATUS_OK || status >= STACKLESS.length)
+            throw new IllegalArgumentException("Not a failure status: " + status);
+        if (SolverMetrics.ENABLED) SolverMetrics.recordException();
+        return STACKLESS[status];
+    }
+
+    /**
+     * Returns the status code describing why the solution failed
+     */
+    public int getStatus() {
+        return status;
+    }
+}
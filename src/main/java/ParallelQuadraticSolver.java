@@ -0,0 +1,88 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Solves very large batches of quadratic equations on a ForkJoinPool.
+ * The coefficient range is split in halves until it is no larger than the split threshold, and each range is then solved
+ * sequentially by the wrapped QuadraticSolver, so the results are identical to a sequential batch solve. Failures are reported
+ * through the status array like in the sequential solver and never abort the rest of the batch.
+ */
+public class ParallelQuadraticSolver {
+
+	public static final int DEFAULT_THRESHOLD = 1 << 14; // equations solved sequentially by a single task
+
+	private final QuadraticSolver solver;
+	private final ForkJoinPool pool;
+	private final int threshold;
+
+	/*
+	 * Creates a parallel solver using the default QuadraticSolver and the common pool.
+	 */
+	public ParallelQuadraticSolver() {
+		this(new QuadraticSolver(), ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+	}
+
+	public ParallelQuadraticSolver(QuadraticSolver solver, ForkJoinPool pool, int threshold) {
+		if (solver == null || pool == null)
+			throw new IllegalArgumentException("Solver and pool cannot be null");
+		if (threshold < 1)
+			throw new IllegalArgumentException("Split threshold must be positive");
+		this.solver = solver;
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	public int getThreshold() {
+		return threshold;
+	}
+
+	/*
+	 * Solves a batch of quadratic equations in parallel. See Quadratic.solveQuadratic for the layout of the output arrays.
+	 */
+	public void solve(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status) {
+
+		QuadraticSolver.checkBatch(a, b, c, real, imaginary, count, status);
+		pool.invoke(new SolveTask(a, b, c, real, imaginary, count, status, 0, a.length)); // each task records its own range
+
+	}
+
+	/*
+	 * Solves a range of the batch, splitting it while it is larger than the threshold.
+	 */
+	private final class SolveTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final double[] a, b, c, real, imaginary;
+		private final int[] count, status;
+		private final int from, to;
+
+		SolveTask(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status, int from, int to) {
+			this.a = a;
+			this.b = b;
+			this.c = c;
+			this.real = real;
+			this.imaginary = imaginary;
+			this.count = count;
+			this.status = status;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (to - from <= threshold) {
+				solver.solve(a, b, c, real, imaginary, count, status, from, to);
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new SolveTask(a, b, c, real, imaginary, count, status, from, middle),
+					new SolveTask(a, b, c, real, imaginary, count, status, middle, to));
+
+		}
+
+	}
+
+}
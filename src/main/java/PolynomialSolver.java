@@ -0,0 +1,404 @@
+/**
+ * Root finder for polynomials with real coefficients, extending the Quadratic Equation Solver to higher degrees.
+ * Coefficients are given highest degree first, like a, b and c. Quadratics go through the tiered quadratic solver, cubics and quartics
+ * use closed forms polished with Newton's Method, and higher degrees use the Aberth-Ehrlich iteration, which refines all roots at once.
+ * Each instance owns preallocated workspaces for polynomials up to a maximum degree, so repeated solves do not allocate. Instances are
+ * not thread-safe; use one per thread.
+ */
+public final class PolynomialSolver {
+
+	static final int MAX_ITERATIONS = 500; // Aberth iterations before giving up
+	private static final double TOLERANCE = 0x1p-50; // relative correction at which a root has converged
+	private static final double ROUNDING = 0x1p-51; // per term bound on the rounding error of Horner's rule in complex arithmetic
+	private static final double SQRT3_2 = Math.sqrt(3) / 2;
+
+	private final int maxDegree;
+	private final double[] work; // monic copy of the coefficients
+	private final double[] zr, zi; // root estimates
+	private final boolean[] done; // roots that have converged
+	private final double[] cubic = new double[3]; // real roots of a cubic, used by the quartic
+	private final TieredQuadraticSolver quadratic = new TieredQuadraticSolver(SqrtStrategy.INTRINSIC);
+	private final QuadraticRoots roots = new QuadraticRoots();
+
+	public PolynomialSolver(int maxDegree) {
+		if (maxDegree < 1)
+			throw new IllegalArgumentException("Maximum degree must be at least 1");
+		this.maxDegree = maxDegree;
+		this.work = new double[maxDegree + 1];
+		this.zr = new double[maxDegree];
+		this.zi = new double[maxDegree];
+		this.done = new boolean[maxDegree];
+	}
+
+	public int getMaxDegree() {
+		return maxDegree;
+	}
+
+	/*
+	 * Finds the roots of the polynomial with the given coefficients, highest degree first. The n roots of a degree n polynomial are
+	 * written to real[0..n) and imaginary[0..n) in no particular order. Returns STATUS_OK, or the reason no accurate
+	 * roots were found.
+	 */
+	public int solve(double[] coefficients, double[] real, double[] imaginary) {
+
+		int degree = coefficients.length - 1;
+		if (degree < 1 || degree > maxDegree)
+			throw new IllegalArgumentException("Degree must be between 1 and " + maxDegree);
+		if (real.length < degree || imaginary.length < degree)
+			throw new IllegalArgumentException("Output arrays are too small for " + degree + " roots");
+		return solve(coefficients, 0, degree, real, imaginary, 0);
+
+	}
+
+	/*
+	 * Finds the roots of many polynomials of the same degree. Polynomial i has its coefficients at coefficients[i*(degree+1)..] and
+	 * its roots are written to real[i*degree..] and imaginary[i*degree..]; status[i] tells whether they are accurate.
+	 */
+	public void solve(int degree, double[] coefficients, double[] real, double[] imaginary, int[] status) {
+
+		if (degree < 1 || degree > maxDegree)
+			throw new IllegalArgumentException("Degree must be between 1 and " + maxDegree);
+		if (coefficients.length % (degree + 1) != 0)
+			throw new IllegalArgumentException("Coefficient array length must be a multiple of " + (degree + 1));
+		int n = coefficients.length / (degree + 1);
+		if (real.length < n*degree || imaginary.length < n*degree || status.length < n)
+			throw new IllegalArgumentException("Output arrays are too small for " + n + " polynomials");
+
+		for (int i = 0; i < n; i++)
+			status[i] = solve(coefficients, i*(degree + 1), degree, real, imaginary, i*degree);
+
+	}
+
+	/*
+	 * Solves one polynomial stored at an offset of the coefficient array into the output arrays at another offset.
+	 */
+	private int solve(double[] coefficients, int from, int degree, double[] real, double[] imaginary, int to) {
+
+		double lead = coefficients[from];
+		for (int k = 0; k <= degree; k++) {
+			double value = coefficients[from + k];
+			if (Double.isNaN(value)) return fail(degree, real, imaginary, to, Quadratic.STATUS_NAN_INPUT);
+			if (Double.isInfinite(value)) return fail(degree, real, imaginary, to, Quadratic.STATUS_OVERFLOW);
+		}
+		if (lead == 0) return fail(degree, real, imaginary, to, Quadratic.STATUS_NOT_ENOUGH_PRECISION);
+
+		// zero constant terms are roots at zero
+		int zeros = 0;
+		while (degree > 0 && coefficients[from + degree] == 0) {
+			degree--;
+			real[to + degree] = 0;
+			imaginary[to + degree] = 0;
+			zeros++;
+		}
+		if (degree == 0) return Quadratic.STATUS_OK;
+
+		for (int k = 0; k <= degree; k++) work[k] = coefficients[from + k] / lead;
+
+		int status;
+		switch (degree) {
+			case 1:
+				real[to] = -work[1];
+				imaginary[to] = 0;
+				status = Quadratic.STATUS_OK;
+				break;
+			case 2:
+				status = quadratic(real, imaginary, to);
+				break;
+			case 3:
+				status = cubic(work[1], work[2], work[3], real, imaginary, to);
+				break;
+			case 4:
+				status = quartic(real, imaginary, to);
+				break;
+			default:
+				status = aberth(degree, real, imaginary, to);
+		}
+		if (status != Quadratic.STATUS_OK) fail(degree + zeros, real, imaginary, to, status);
+		return status;
+
+	}
+
+	/*
+	 * Marks the roots of a failed polynomial as NaN and returns its status.
+	 */
+	private static int fail(int degree, double[] real, double[] imaginary, int to, int status) {
+
+		for (int k = 0; k < degree; k++) real[to + k] = imaginary[to + k] = Double.NaN;
+		return status;
+
+	}
+
+	/*
+	 * Solves the monic quadratic in the workspace.
+	 */
+	private int quadratic(double[] real, double[] imaginary, int to) {
+
+		int status = quadratic.solveInto(1, work[1], work[2], roots);
+		real[to] = roots.getReal1();
+		real[to + 1] = roots.getReal2();
+		imaginary[to] = roots.getImaginary1();
+		imaginary[to + 1] = roots.getImaginary2();
+		return status;
+
+	}
+
+	/*
+	 * Solves x^3 + ax^2 + bx + c = 0 with the trigonometric method for three real roots and Cardano's formula otherwise, then polishes
+	 * the real roots with Newton's Method.
+	 */
+	private static int cubic(double a, double b, double c, double[] real, double[] imaginary, int to) {
+
+		double q = (a*a - 3*b) / 9;
+		double r = (2*a*a*a - 9*a*b + 27*c) / 54;
+		double shift = a / 3;
+		double q3 = q*q*q;
+
+		if (r*r < q3) { // three distinct real roots
+			double theta = Math.acos(r / Math.sqrt(q3));
+			double s = -2*Math.sqrt(q);
+			real[to] = polishCubic(a, b, c, s*Math.cos(theta/3) - shift);
+			real[to + 1] = polishCubic(a, b, c, s*Math.cos((theta + 2*Math.PI)/3) - shift);
+			real[to + 2] = polishCubic(a, b, c, s*Math.cos((theta - 2*Math.PI)/3) - shift);
+			imaginary[to] = imaginary[to + 1] = imaginary[to + 2] = 0;
+		} else { // one real root and a complex pair, or repeated real roots
+			// r = 0 must still pick a branch, or u and v both vanish and a complex pair turns into a triple root. With that, u is zero
+			// only when q and r both are, a triple root, where v = 0 is right and q/u would be 0/0
+			double u = -((r >= 0) ? 1 : -1) * Math.cbrt(Math.abs(r) + Math.sqrt(r*r - q3));
+			double v = (u == 0) ? 0 : q/u;
+			real[to] = polishCubic(a, b, c, (u + v) - shift);
+			real[to + 1] = real[to + 2] = -(u + v)/2 - shift;
+			double y = SQRT3_2 * (u - v);
+			imaginary[to] = 0;
+			imaginary[to + 1] = y;
+			imaginary[to + 2] = -y;
+		}
+
+		for (int k = 0; k < 3; k++) {
+			if (!Double.isFinite(real[to + k]) || !Double.isFinite(imaginary[to + k])) return Quadratic.STATUS_OVERFLOW;
+		}
+		return Quadratic.STATUS_OK;
+
+	}
+
+	/*
+	 * Takes up to two Newton steps on a real root of x^3 + ax^2 + bx + c, keeping a step only if it reduces the residual.
+	 */
+	private static double polishCubic(double a, double b, double c, double x) {
+
+		for (int i = 0; i < 2; i++) {
+			double f = ((x + a)*x + b)*x + c;
+			double df = (3*x + 2*a)*x + b;
+			if (f == 0 || df == 0) break;
+			double next = x - f/df;
+			if (!(Math.abs(((next + a)*next + b)*next + c) < Math.abs(f))) break;
+			x = next;
+		}
+		return x;
+
+	}
+
+	/*
+	 * Solves the monic quartic in the workspace with Ferrari's method: the depressed quartic is split into two quadratics using a root of
+	 * its resolvent cubic, and the four roots are polished with complex Newton steps.
+	 */
+	private int quartic(double[] real, double[] imaginary, int to) {
+
+		double a = work[1], b = work[2], c = work[3], d = work[4];
+		double shift = a / 4;
+
+		// depressed quartic y^4 + py^2 + qy + r with x = y - a/4
+		double a2 = a*a;
+		double p = b - 3*a2/8;
+		double q = c - a*b/2 + a2*a/8;
+		double r = d - a*c/4 + a2*b/16 - 3*a2*a2/256;
+
+		if (Math.abs(q) <= TOLERANCE * (Math.abs(c) + Math.abs(a*b)/2 + Math.abs(a2*a)/8)) {
+			// biquadratic: solve for z = y^2, then take both square roots of each z
+			quadraticRoots(p, r, real, imaginary, to);
+			for (int k = 1; k >= 0; k--) {
+				double zr = real[to + k], zi = imaginary[to + k];
+				double modulus = Math.hypot(zr, zi);
+				double t = Math.sqrt((modulus + Math.abs(zr)) / 2);
+				double sr = (zr >= 0) ? t : (t == 0 ? 0 : Math.abs(zi) / (2*t));
+				double si = (zr >= 0) ? (t == 0 ? 0 : zi / (2*t)) : Math.copySign(t, zi);
+				real[to + 2*k] = sr;
+				imaginary[to + 2*k] = si;
+				real[to + 2*k + 1] = -sr;
+				imaginary[to + 2*k + 1] = -si;
+			}
+		} else {
+			// largest root m of the resolvent m^3 + pm^2 + (p^2/4 - r)m - q^2/8, positive because q is not zero
+			double[] m = cubic;
+			cubic(p, p*p/4 - r, -q*q/8, m, zi, 0);
+			double largest = m[0];
+			for (int k = 1; k < 3; k++) {
+				if (zi[k] == 0 && m[k] > largest) largest = m[k];
+			}
+			if (!(largest > 0)) return Quadratic.STATUS_NOT_ENOUGH_PRECISION;
+			double s = Math.sqrt(2*largest);
+			quadraticRoots(s, p/2 + largest - q/(2*s), real, imaginary, to);
+			quadraticRoots(-s, p/2 + largest + q/(2*s), real, imaginary, to + 2);
+		}
+
+		for (int k = 0; k < 4; k++) {
+			real[to + k] -= shift;
+			polish(4, real, imaginary, to + k);
+			if (!Double.isFinite(real[to + k]) || !Double.isFinite(imaginary[to + k])) return Quadratic.STATUS_OVERFLOW;
+		}
+		return Quadratic.STATUS_OK;
+
+	}
+
+	/*
+	 * Writes the roots of y^2 + by + c, which may be complex, using the mixed approach to avoid subtractive cancellation.
+	 */
+	private static void quadraticRoots(double b, double c, double[] real, double[] imaginary, int to) {
+
+		double discriminant = b*b - 4*c;
+		if (discriminant >= 0) {
+			double q = (-0.5) * (b + Quadratic.sign(b)*Math.sqrt(discriminant));
+			real[to] = q;
+			real[to + 1] = (q == 0) ? 0 : c/q;
+			imaginary[to] = imaginary[to + 1] = 0;
+		} else {
+			real[to] = real[to + 1] = -b/2;
+			imaginary[to] = Math.sqrt(-discriminant)/2;
+			imaginary[to + 1] = -imaginary[to];
+		}
+
+	}
+
+	/*
+	 * Takes up to two complex Newton steps on a root of the monic polynomial in the workspace, keeping a step only if it reduces the
+	 * residual.
+	 */
+	private void polish(int degree, double[] real, double[] imaginary, int k) {
+
+		double xr = real[k], xi = imaginary[k];
+		for (int i = 0; i < 2; i++) {
+			// p(x) and p'(x) by Horner's rule
+			double pr = 1, pi = 0, dr = 0, di = 0;
+			for (int j = 1; j <= degree; j++) {
+				double t = dr*xr - di*xi + pr;
+				di = dr*xi + di*xr + pi;
+				dr = t;
+				t = pr*xr - pi*xi + work[j];
+				pi = pr*xi + pi*xr;
+				pr = t;
+			}
+			double denominator = dr*dr + di*di;
+			if ((pr == 0 && pi == 0) || denominator == 0) break;
+			double nr = xr - (pr*dr + pi*di) / denominator;
+			double ni = xi - (pi*dr - pr*di) / denominator;
+			if (!(residual(degree, nr, ni) < pr*pr + pi*pi)) break;
+			xr = nr;
+			xi = ni;
+		}
+		real[k] = xr;
+		imaginary[k] = xi;
+
+	}
+
+	/*
+	 * Returns |p(x)|^2 for the monic polynomial in the workspace.
+	 */
+	private double residual(int degree, double xr, double xi) {
+
+		double pr = 1, pi = 0;
+		for (int j = 1; j <= degree; j++) {
+			double t = pr*xr - pi*xi + work[j];
+			pi = pr*xi + pi*xr;
+			pr = t;
+		}
+		return pr*pr + pi*pi;
+
+	}
+
+	/*
+	 * Finds all roots of the monic polynomial in the workspace at once with the Aberth-Ehrlich iteration, starting from points spread
+	 * around a circle that encloses the roots.
+	 */
+	private int aberth(int degree, double[] real, double[] imaginary, int to) {
+
+		// the roots lie within max |a_k|^(1/k) of the centroid, scaled by two (Fujiwara's bound)
+		double center = -work[1] / degree;
+		double radius = 0;
+		for (int k = 1; k <= degree; k++) radius = Math.max(radius, Math.pow(Math.abs(work[k]), 1.0 / k));
+		radius *= 2;
+		for (int k = 0; k < degree; k++) {
+			double angle = 2*Math.PI*k/degree + 0.4; // offset so no start lies on the real axis
+			zr[k] = center + radius*Math.cos(angle);
+			zi[k] = radius*Math.sin(angle);
+			done[k] = false;
+		}
+
+		boolean converged = false;
+		for (int iteration = 0; iteration < MAX_ITERATIONS && !converged; iteration++) {
+			converged = true;
+			for (int k = 0; k < degree; k++) {
+				if (done[k]) continue;
+				double xr = zr[k], xi = zi[k];
+				double modulus = Math.hypot(xr, xi);
+
+				// p(z) and p'(z) by Horner's rule, and the same sum over |a_j| and |z| to bound its rounding error
+				double pr = 1, pi = 0, dr = 0, di = 0, bound = 1;
+				for (int j = 1; j <= degree; j++) {
+					double t = dr*xr - di*xi + pr;
+					di = dr*xi + di*xr + pi;
+					dr = t;
+					t = pr*xr - pi*xi + work[j];
+					pi = pr*xi + pi*xr;
+					pr = t;
+					bound = bound*modulus + Math.abs(work[j]);
+				}
+
+				// the residual is down to rounding error, so no correction can improve the root
+				if (Math.hypot(pr, pi) <= ROUNDING*degree*bound) {
+					done[k] = true;
+					continue;
+				}
+				converged = false;
+
+				// Newton correction n = p/p'
+				double denominator = dr*dr + di*di;
+				if (denominator == 0) {
+					// stationary point, nudge the estimate
+					zr[k] = xr + radius*TOLERANCE;
+					continue;
+				}
+				double nr = (pr*dr + pi*di) / denominator;
+				double ni = (pi*dr - pr*di) / denominator;
+
+				// repulsion from the other estimates, sum of 1/(z_k - z_j)
+				double sr = 0, si = 0;
+				for (int j = 0; j < degree; j++) {
+					if (j == k) continue;
+					double ur = xr - zr[j], ui = xi - zi[j];
+					double u = ur*ur + ui*ui;
+					sr += ur / u;
+					si -= ui / u;
+				}
+
+				// Aberth correction w = n / (1 - n*s)
+				double er = 1 - (nr*sr - ni*si);
+				double ei = -(nr*si + ni*sr);
+				double e = er*er + ei*ei;
+				double wr = (nr*er + ni*ei) / e;
+				double wi = (ni*er - nr*ei) / e;
+
+				zr[k] = xr - wr;
+				zi[k] = xi - wi;
+				if (Math.hypot(wr, wi) <= TOLERANCE * Math.hypot(zr[k], zi[k])) done[k] = true;
+			}
+		}
+
+		for (int k = 0; k < degree; k++) {
+			real[to + k] = zr[k];
+			imaginary[to + k] = zi[k];
+			if (!Double.isFinite(zr[k]) || !Double.isFinite(zi[k])) return Quadratic.STATUS_OVERFLOW;
+		}
+		return converged ? Quadratic.STATUS_OK : Quadratic.STATUS_NOT_ENOUGH_PRECISION;
+
+	}
+
+}
@@ -0,0 +1,12 @@
+/**
+ * Arithmetic used to compute the discriminant of a solved equation.
+ * DOUBLE is plain double arithmetic, DOUBLE_DOUBLE carries the discriminant as an unevaluated sum of two doubles, and BIG_DECIMAL
+ * computes it exactly for inputs whose products overflow or underflow the double range.
+ */
+public enum PrecisionTier {
+
+	DOUBLE,
+	DOUBLE_DOUBLE,
+	BIG_DECIMAL
+
+}
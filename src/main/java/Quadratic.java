@@ -12,97 +12,202 @@
  * subtractive cancellation. Newton's Method is used to compute the square root.
  */
 
-import java.text.DecimalFormat;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
 import java.util.Scanner;
 
 public class Quadratic {
 
 	private static final double ERROR = 0.00000001; // acceptable error for Newton's Method
-	
+
+	// status codes reported by the batch solver
+	public static final int STATUS_OK = 0;
+	public static final int STATUS_NOT_ENOUGH_PRECISION = 1; // any failure without a more specific reason, such as a == 0
+	public static final int STATUS_NAN_INPUT = 2;
+	public static final int STATUS_OVERFLOW = 3; // a coefficient, b^2, 4ac, the discriminant or a root is too large for a double
+	public static final int STATUS_UNDERFLOW = 4; // b^2 or 4ac fell below the normal range and nothing larger outweighs the lost bits
+	public static final int STATUS_CANCELLATION = 5; // 4ac is too small next to b^2 to change the discriminant
+
+	// seed polynomial approximating sqrt on [1, 4) to within 0.5%, so three Newton steps reach all but the last bits
+	private static final double SEED_C0 = 0.5185546283489475;
+	private static final double SEED_C1 = 0.5260096907302437;
+	private static final double SEED_C2 = -0.03954011274601693;
+	private static final double RELATIVE_ERROR = 1.5e-8; // a smaller Newton step means the next one would only fix the last bits
+	private static final int MAX_ITERATIONS = 8; // enough for seeds off by a factor of two, as a warm start can be
+
+	// the console solver keeps the original Newton loop so its output does not change
+	private static final QuadraticSolver SOLVER = new QuadraticSolver(SqrtStrategy.NEWTON);
+	private static final ThreadLocal<ResultSink> CONSOLE = ThreadLocal.withInitial(ResultSink::console);
+
 	/*
 	 * Solves the quadratic equation and outputs roots to the screen. Throws an exception is precision is lost during calculation.
 	 */
 	public static void solveQuadratic(double a, double b, double c) throws NotEnoughPrecisionException {
 		
-		double sqrt, q;
-		double discriminant = b*b - 4*a*c;
-		String real, imaginary, output, x1, x2;
-		
-		// check for overflow and b^2 >> 4ac
-		if (Double.isNaN(discriminant) || discriminant == b*b) {
-			throw new NotEnoughPrecisionException();
+		try {
+			solveQuadratic(a, b, c, CONSOLE.get());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e); // the console sink never throws
 		}
 		
-		if (discriminant < 0) { // complex roots
-			sqrt = sqrtByNewton(-1*discriminant);
-			real = formatDouble((-1*b)/(2*a));
-			imaginary = formatDouble(sqrt/(2*a));
-			// don't print redundant zeros and signs
-			output = "x1 = ";
-			output += (!real.equals("0")) ? real + " + " : "";
-			output += (!imaginary.equals("1")) ? imaginary : "";
-			output += "i\nx2 = ";
-			output += (!real.equals("0")) ? real + " - " : "-";
-			output += (!imaginary.equals("1")) ? imaginary : "";
-			output += "i";
-			System.out.println(output);
-		} else { // real roots
-			sqrt = sqrtByNewton(discriminant);
-			// mixed approach to avoid subtractive cancellation
-			q = (-0.5) * (b + sign(b)*sqrt);
-			x1 = formatDouble(q/a);
-			x2 = formatDouble(c/q);
-			// don't print the same root twice
-			output = "x1 = " + x1;
-			output += (!x1.equals(x2)) ? "\nx2 = " + x2 : "";
-			System.out.println(output);
-		}	
-		
+	}
+
+	/*
+	 * Solves the quadratic equation and writes the roots to a sink. Throws an exception is precision is lost during calculation.
+	 */
+	public static void solveQuadratic(double a, double b, double c, ResultSink sink) throws NotEnoughPrecisionException, IOException {
+
+		sink.write(solve(a, b, c));
+
 	}
 	
+	/*
+	 * Solves the quadratic equation and returns its roots without formatting them. Throws an exception if precision is lost during calculation.
+	 */
+	public static QuadraticRoots solve(double a, double b, double c) throws NotEnoughPrecisionException {
+
+		return SOLVER.solve(a, b, c);
+
+	}
+
+	/*
+	 * Solves the quadratic equation into a reusable holder. Throws an exception if precision is lost during calculation.
+	 */
+	public static void solve(double a, double b, double c, QuadraticRoots roots) throws NotEnoughPrecisionException {
+
+		SOLVER.solve(a, b, c, roots);
+
+	}
+
+	/*
+	 * Solves the quadratic equation into a reusable holder and returns STATUS_OK or the reason it failed, without throwing.
+	 */
+	public static int trySolve(double a, double b, double c, QuadraticRoots roots) {
+
+		return SOLVER.trySolve(a, b, c, roots);
+
+	}
+
+	/*
+	 * Solves a batch of quadratic equations given as coefficient columns. The roots of equation i are written to real[2*i], real[2*i+1]
+	 * and imaginary[2*i], imaginary[2*i+1], the number of distinct roots to count[i] and the outcome to status[i]. Nothing is printed and
+	 * no exception is thrown for individual equations; equations that lose precision are reported with one of the failure statuses.
+	 */
+	public static void solveQuadratic(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status) {
+
+		SOLVER.solve(a, b, c, real, imaginary, count, status);
+
+	}
+
 	/*
 	 * Extracts the sign of a double value.
 	 */
-	private static int sign(double b) {
+	static int sign(double b) {
 		return (b > 0) ? 1 : -1;
 	}
 	
 	/*
 	 * Computes the square root of a number using Newton's Method. Returns when the error threshold has been reached.
 	 */
-	private static double sqrtByNewton(double value) {
+	static double sqrtByNewton(double value) {
 		
-		// square root of zero is zero
+		// square root of zero is zero, and the loop would never settle on infinity or NaN
 		if (value == 0) return 0;
+		if (!Double.isFinite(value)) return Math.sqrt(value);
 		
 		double result, previous;
 		previous = (1 + value)/2;
+		int iterations = 0;
 		
 		// iterate until error threshold is reached
 		while(true) {
 			result = (previous + value/previous) / 2;
+			iterations++;
 			if (previous - result < ERROR)
 				break;
 			previous = result;
 		}
 		
+		if (SolverMetrics.ENABLED) SolverMetrics.recordNewton(iterations);
 		return result;
 		
 	}
 	
+	/*
+	 * Computes the square root of a number using Newton's Method seeded from the exponent bits. The value is split into a mantissa in [1, 4)
+	 * and an even power of two, so the seed is accurate regardless of magnitude and the loop stops on a relative rather than absolute error.
+	 * The result is correctly rounded, like Math.sqrt.
+	 */
+	static double sqrtBySeededNewton(double value) {
+
+		// zero, infinity and invalid values have no mantissa to work with
+		if (value == 0 || value == Double.POSITIVE_INFINITY) return value;
+		if (!(value > 0)) return Double.NaN;
+
+		// normalize subnormal values first
+		if (value < Double.MIN_NORMAL)
+			return Math.scalb(sqrtBySeededNewton(Math.scalb(value, 54)), -27);
+
+		int half = Math.getExponent(value) >> 1;
+		double mantissa = Math.scalb(value, -2*half);
+		return Math.scalb(newton(mantissa, SEED_C0 + mantissa*(SEED_C1 + mantissa*SEED_C2)), half);
+
+	}
+
+	/*
+	 * Computes the square root of a number like sqrtBySeededNewton, but starts Newton's Method from the given estimate of the root. Falls
+	 * back to the exponent seed when the estimate is not a positive number or the value is not normal.
+	 */
+	static double sqrtBySeededNewton(double value, double seed) {
+
+		if (!(value >= Double.MIN_NORMAL && value < Double.POSITIVE_INFINITY && seed > 0 && seed < Double.POSITIVE_INFINITY))
+			return sqrtBySeededNewton(value);
+
+		int half = Math.getExponent(value) >> 1;
+		return Math.scalb(newton(Math.scalb(value, -2*half), Math.scalb(seed, -half)), half);
+
+	}
+
+	/*
+	 * Refines an estimate of the square root of a mantissa in [1, 4) with Newton's Method and rounds it correctly.
+	 */
+	private static double newton(double mantissa, double seed) {
+
+		double result = seed, previous = seed;
+
+		// iterate until the step is small enough for the corrected step below to finish
+		int iterations = 0;
+		while (iterations < MAX_ITERATIONS) {
+			result = (previous + mantissa/previous) / 2;
+			iterations++;
+			if (Math.abs(previous - result) <= RELATIVE_ERROR*result)
+				break;
+			previous = result;
+		}
+
+		// the plain steps can leave the result an ulp or two off, so take one more step with the residual computed by fma, then round
+		// correctly: the result is right when mantissa lies between the squares of the midpoints to its neighbours
+		result += Math.fma(-result, result, mantissa) / (2*result);
+		if (Math.fma(result, Math.nextUp(result), -mantissa) < 0)
+			result = Math.nextUp(result);
+		else if (Math.fma(result, Math.nextDown(result), -mantissa) >= 0)
+			result = Math.nextDown(result);
+
+		if (SolverMetrics.ENABLED) SolverMetrics.recordNewton(iterations);
+		return result;
+
+	}
+	
 	/* 
 	 * Checks whether a double value actually represents an integer, and formats accordingly.
 	 */
-	private static String formatDouble(double value) {
+	static String formatDouble(double value) {
 		
-		// check if value is actually an integer
-		if (Math.floor(value) == value) {
-			Integer intValue = (int)value;
-			return intValue.toString();
-		} else {
-			Double doubleValue = value;
-			return doubleValue.toString();
-		}
+		char[] buffer = new char[DoubleFormatter.MAX_LENGTH];
+		return new String(buffer, 0, DoubleFormatter.format(value, buffer, 0));
 		
 	}
 	
@@ -111,27 +216,33 @@ public class Quadratic {
 	 */
 	public static double validateInput(String input) throws NotEnoughPrecisionException {
 		
-		// parse the input
-		Double value = Double.parseDouble(input);
-		
-		// format value to decimal of (almost) arbitrary length
-		DecimalFormat decimal = new DecimalFormat("###################################################################################################0.0" +
-				"###################################################################################################");
-		
-		// append .0 when input is integer
-		String formatted = input;
-		if (input.indexOf('.') == -1) formatted += ".0";
-		
-		// if new value is not equal to original, overflow has occurred
-		if (!decimal.format(value).equals(formatted) && !value.toString().equals(input)) // toString to validate e-notation
-			throw new NotEnoughPrecisionException();
-		
-		return value;
+		return InputValidator.validate(input);
 		
 	}
+
+	/*
+	 * Validates a coefficient held in any character sequence, such as a reused buffer, without allocating.
+	 */
+	public static double validateInput(CharSequence input) throws NotEnoughPrecisionException {
+
+		return InputValidator.validate(input);
+
+	}
 	
 	public static void main(String[] args) {	
 		
+		// non-interactive mode for scripts and pipes
+		if (args.length > 0 && args[0].equals("--batch")) {
+			runBatch(args.length > 1 ? args[1] : null);
+			return;
+		}
+
+		// local service mode for other processes
+		if (args.length > 0 && args[0].equals("--server")) {
+			runServer(args.length > 1 ? Integer.parseInt(args[1]) : 0);
+			return;
+		}
+		
 		double a, b, c;
 		a = b = c = 0; // to keep the compiler happy
 		
@@ -193,4 +304,44 @@ public class Quadratic {
 		
 	}
 
+	/*
+	 * Solves the equations in a file, or standard input if no file is given, and writes one line per equation to standard output.
+	 * Files are solved by the pipeline so reading, solving and writing overlap; standard input keeps the sequential loop.
+	 */
+	private static void runBatch(String file) {
+
+		ResultSink output = ResultSink.of(Channels.newChannel(System.out));
+		QuadraticSolver solver = new QuadraticSolver();
+		try {
+			if (file == null) {
+				QuadraticBatch.run(System.in, output, solver);
+			} else {
+				try (InputStream input = new FileInputStream(file)) {
+					new QuadraticPipeline().run(input, output);
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("Failed to solve equations: " + e.getMessage());
+		} finally {
+			System.out.flush();
+		}
+
+	}
+
+	/*
+	 * Serves equations on a loopback port until the process is terminated. Port 0 picks a free port.
+	 */
+	private static void runServer(int port) {
+
+		try (QuadraticServer server = new QuadraticServer(port)) {
+			System.out.println("Listening on port " + server.getPort());
+			server.await();
+		} catch (IOException e) {
+			System.err.println("Failed to start server: " + e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+	}
+
 }
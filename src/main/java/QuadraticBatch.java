@@ -0,0 +1,88 @@
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Non-interactive mode of the Quadratic Equation Solver.
+ * Reads coefficient triples separated by whitespace or commas, one or more per line, and writes exactly one line per equation, either
+ * the roots with x1 and x2 on the same line or an error message, without any prompts. An equation never continues onto the next line,
+ * so a short line is reported as incomplete without shifting the lines after it. Tokens are validated straight from the read buffer
+ * and the solver reports failures as status codes, so nothing is allocated per equation on the common path.
+ */
+public final class QuadraticBatch {
+
+	static final String NOT_A_NUMBER = "error: not a number";
+	static final String OUT_OF_RANGE = "error: value out of range";
+	static final String A_IS_ZERO = "error: 'a' cannot be zero";
+	static final String NO_SOLUTION = "error: not enough precision";
+	static final String INCOMPLETE = "error: incomplete equation";
+
+	private QuadraticBatch() {
+	}
+
+	/*
+	 * Solves every equation in the input and writes one line per equation to the sink. Returns the number of equations read.
+	 */
+	public static long run(InputStream input, ResultSink output, QuadraticSolver solver) throws IOException {
+
+		return run(new ByteTokenizer(input), output, solver, false);
+
+	}
+
+	/*
+	 * Solves every equation read by the tokenizer. With flushWhenIdle the output is flushed whenever no further input is waiting, so
+	 * a client that pipelines requests gets responses in batches and a client waiting for its last response is never stalled.
+	 */
+	static long run(ByteTokenizer tokens, ResultSink output, QuadraticSolver solver, boolean flushWhenIdle) throws IOException {
+
+		QuadraticRoots roots = new QuadraticRoots();
+		DoubleFormatter formatter = new DoubleFormatter();
+		StringBuilder line = new StringBuilder(128);
+		double[] coefficients = new double[3];
+		long equations = 0;
+
+		while (tokens.next()) {
+			equations++;
+
+			// read all three coefficients of the line so a bad or missing one does not shift the following equations
+			String error = null;
+			int read = 0;
+			do {
+				if (error == null) error = parse(tokens, coefficients, read);
+			} while (++read < 3 && tokens.nextInLine());
+
+			if (read < 3) {
+				output.write(INCOMPLETE);
+			} else if (error != null) {
+				output.write(error);
+			} else if (coefficients[0] == 0) {
+				output.write(A_IS_ZERO);
+			} else if (solver.trySolve(coefficients[0], coefficients[1], coefficients[2], roots) != Quadratic.STATUS_OK) {
+				output.write(NO_SOLUTION);
+			} else {
+				line.setLength(0);
+				output.write(roots.appendTo(line, formatter, ", "));
+			}
+
+			if (flushWhenIdle && !tokens.hasPendingInput()) output.flush();
+		}
+
+		output.flush();
+		return equations;
+
+	}
+
+	/*
+	 * Validates the current token into coefficients[index]. Returns an error message, or null if the value is valid.
+	 */
+	static String parse(CharSequence token, double[] coefficients, int index) {
+		try {
+			coefficients[index] = InputValidator.validate(token);
+			return null;
+		} catch (NotEnoughPrecisionException e) {
+			return OUT_OF_RANGE;
+		} catch (NumberFormatException e) {
+			return NOT_A_NUMBER;
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary columnar files for the Quadratic Equation Solver.
+ * A coefficient file is a 16 byte header (magic, version, row count) followed by the a, b and c columns as contiguous little-endian
+ * doubles. A root file has the same header followed by the real, imaginary, count and status columns in the layout used by
+ * Quadratic.solveQuadratic. Files are memory-mapped one chunk at a time, so inputs larger than the heap are solved without
+ * parsing text or copying coefficients onto the heap.
+ */
+public final class QuadraticFile {
+
+	static final int COEFFICIENT_MAGIC = 0x51434F46; // "QCOF"
+	static final int ROOT_MAGIC = 0x51524F46; // "QROF"
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 16;
+	static final int CHUNK = 1 << 20; // rows mapped at a time
+
+	private QuadraticFile() {
+	}
+
+	/*
+	 * Writes coefficient columns to a new coefficient file.
+	 */
+	public static void writeCoefficients(Path file, double[] a, double[] b, double[] c) throws IOException {
+
+		long rows = a.length;
+		if (b.length != rows || c.length != rows)
+			throw new IllegalArgumentException("Coefficient arrays must have the same length");
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			writeHeader(channel, COEFFICIENT_MAGIC, rows);
+			for (int start = 0; start < rows; start += CHUNK) {
+				int length = (int) Math.min(CHUNK, rows - start);
+				map(channel, FileChannel.MapMode.READ_WRITE, column(0, 8, rows, start), 8L*length).asDoubleBuffer().put(a, start, length);
+				map(channel, FileChannel.MapMode.READ_WRITE, column(1, 8, rows, start), 8L*length).asDoubleBuffer().put(b, start, length);
+				map(channel, FileChannel.MapMode.READ_WRITE, column(2, 8, rows, start), 8L*length).asDoubleBuffer().put(c, start, length);
+			}
+		}
+
+	}
+
+	/*
+	 * Solves every equation of a coefficient file and writes the roots to a new root file. Returns the number of equations solved.
+	 */
+	public static long solve(Path coefficients, Path roots, QuadraticSolver solver) throws IOException {
+
+		try (FileChannel input = FileChannel.open(coefficients, StandardOpenOption.READ);
+				FileChannel output = FileChannel.open(roots, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+						StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+			long rows = readHeader(input, COEFFICIENT_MAGIC);
+			if (input.size() < HEADER_SIZE + 24*rows)
+				throw new IOException("Coefficient file is truncated");
+			writeHeader(output, ROOT_MAGIC, rows);
+
+			for (long start = 0; start < rows; start += CHUNK) {
+				int length = (int) Math.min(CHUNK, rows - start);
+				FileChannel.MapMode read = FileChannel.MapMode.READ_ONLY, write = FileChannel.MapMode.READ_WRITE;
+				ByteBuffer a = map(input, read, column(0, 8, rows, start), 8L*length);
+				ByteBuffer b = map(input, read, column(1, 8, rows, start), 8L*length);
+				ByteBuffer c = map(input, read, column(2, 8, rows, start), 8L*length);
+				ByteBuffer real = map(output, write, HEADER_SIZE + 16*start, 16L*length);
+				ByteBuffer imaginary = map(output, write, HEADER_SIZE + 16*rows + 16*start, 16L*length);
+				ByteBuffer count = map(output, write, HEADER_SIZE + 32*rows + 4*start, 4L*length);
+				ByteBuffer status = map(output, write, HEADER_SIZE + 36*rows + 4*start, 4L*length);
+
+				// solve straight from the mapped pages
+				solver.solve(new BufferColumn(a, 0, 8), new BufferColumn(b, 0, 8), new BufferColumn(c, 0, 8), new BufferColumn(real, 0, 16),
+						new BufferColumn(imaginary, 0, 16), new BufferColumn(count, 0, 4), new BufferColumn(status, 0, 4), length);
+			}
+
+			return rows;
+		}
+
+	}
+
+	/*
+	 * Reads a root file into batch output arrays. Returns the number of equations read.
+	 */
+	public static int readRoots(Path roots, double[] real, double[] imaginary, int[] count, int[] status) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(roots, StandardOpenOption.READ)) {
+			long rows = readHeader(channel, ROOT_MAGIC);
+			if (real.length < 2*rows || imaginary.length < 2*rows || count.length < rows || status.length < rows)
+				throw new IllegalArgumentException("Output arrays are too small for " + rows + " equations");
+			if (channel.size() < HEADER_SIZE + 40*rows)
+				throw new IOException("Root file is truncated");
+
+			FileChannel.MapMode read = FileChannel.MapMode.READ_ONLY;
+			for (int start = 0; start < rows; start += CHUNK) {
+				int length = (int) Math.min(CHUNK, rows - start);
+				map(channel, read, HEADER_SIZE + 16L*start, 16L*length).asDoubleBuffer().get(real, 2*start, 2*length);
+				map(channel, read, HEADER_SIZE + 16*rows + 16L*start, 16L*length).asDoubleBuffer().get(imaginary, 2*start, 2*length);
+				map(channel, read, HEADER_SIZE + 32*rows + 4L*start, 4L*length).asIntBuffer().get(count, start, length);
+				map(channel, read, HEADER_SIZE + 36*rows + 4L*start, 4L*length).asIntBuffer().get(status, start, length);
+			}
+			return (int) rows;
+		}
+
+	}
+
+	/*
+	 * Returns the file position of row start in the given column of equally sized columns.
+	 */
+	private static long column(int index, int width, long rows, long start) {
+		return HEADER_SIZE + index*width*rows + width*start;
+	}
+
+	private static ByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long position, long size) throws IOException {
+		return channel.map(mode, position, size).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static void writeHeader(FileChannel channel, int magic, long rows) throws IOException {
+		map(channel, FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE).putInt(magic).putInt(VERSION).putLong(rows);
+	}
+
+	/*
+	 * Checks the header of a file and returns its row count. Throws an exception if the file is not of the expected kind.
+	 */
+	private static long readHeader(FileChannel channel, int magic) throws IOException {
+
+		if (channel.size() < HEADER_SIZE)
+			throw new IOException("File is too short to contain a header");
+		ByteBuffer header = map(channel, FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+		if (header.getInt() != magic)
+			throw new IOException("Unexpected file type");
+		if (header.getInt() != VERSION)
+			throw new IOException("Unsupported file version");
+		long rows = header.getLong();
+		if (rows < 0)
+			throw new IOException("Invalid row count " + rows);
+		return rows;
+
+	}
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Lane-parallel batch kernel for the Quadratic Equation Solver.
+ * Equations are processed in fixed size blocks: the discriminants and their square roots are computed in straight-line loops over
+ * primitive scratch arrays, and the complex/real/failure branches are then selected per lane instead of branched on, so the JIT can
+ * compile the hot loops to SIMD instructions. The square root is Math.sqrt, and the results are identical to a QuadraticSolver using
+ * SqrtStrategy.INTRINSIC.
+ */
+final class QuadraticKernel {
+
+	static final int BLOCK = 256; // lanes processed per pass, small enough to keep the scratch arrays in L1
+
+	private QuadraticKernel() {
+	}
+
+	/*
+	 * Solves the equations with indexes from (inclusive) to to (exclusive) of a batch. See Quadratic.solveQuadratic for the layout of
+	 * the output arrays.
+	 */
+	static void solve(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status, int from, int to) {
+
+		double[] discriminant = new double[BLOCK];
+		double[] root = new double[BLOCK];
+
+		for (int start = from; start < to; start += BLOCK) {
+			int lanes = Math.min(BLOCK, to - start);
+
+			// discriminant and square root of its magnitude for every lane
+			for (int j = 0; j < lanes; j++) {
+				int i = start + j;
+				double d = b[i]*b[i] - 4*a[i]*c[i];
+				discriminant[j] = d;
+				root[j] = Math.sqrt(Math.abs(d));
+			}
+
+			// select complex roots, real roots or a precision failure per lane
+			for (int j = 0; j < lanes; j++) {
+				int i = start + j;
+				double ai = a[i], bi = b[i], d = discriminant[j], s = root[j];
+				double bb = bi*bi;
+				boolean failed = !Double.isFinite(d) | d == bb | QuadraticSolver.underflowed(bb, bi, 4*ai*c[i], c[i]);
+				boolean complex = d < 0;
+
+				double q = (-0.5) * (bi + (bi > 0 ? s : -s)); // mixed approach to avoid subtractive cancellation
+				double x1 = complex ? (-1*bi)/(2*ai) : q/ai;
+				double x2 = complex ? x1 : c[i]/q;
+				double y = complex ? s/(2*ai) : 0;
+
+				real[2*i] = failed ? Double.NaN : x1;
+				real[2*i + 1] = failed ? Double.NaN : x2;
+				imaginary[2*i] = failed ? Double.NaN : y;
+				imaginary[2*i + 1] = failed ? Double.NaN : -y;
+				count[i] = failed ? 0 : (complex || x1 != x2) ? 2 : 1;
+				status[i] = failed ? QuadraticSolver.failureStatus(ai, bi, c[i]) : Quadratic.STATUS_OK;
+			}
+		}
+
+	}
+
+}
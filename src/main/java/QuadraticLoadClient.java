@@ -0,0 +1,117 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Loopback load generator for the Quadratic server.
+ * Opens a number of concurrent connections, pipelines a fixed window of equations on each and checks that every request gets exactly
+ * one response line holding its roots. Usage: java QuadraticLoadClient port [connections] [requests per connection] [pipeline depth]
+ */
+public final class QuadraticLoadClient {
+
+	private QuadraticLoadClient() {
+	}
+
+	/*
+	 * Sends the requests over the given number of connections and returns the number of responses received.
+	 */
+	public static long run(int port, int connections, int requests, int depth) throws IOException, InterruptedException {
+
+		if (connections < 1 || requests < 0 || depth < 1)
+			throw new IllegalArgumentException("Invalid load parameters");
+
+		ExecutorService clients = QuadraticServer.newThreadPerTaskExecutor();
+		try {
+			List<Future<Long>> results = new ArrayList<>(connections);
+			for (int i = 0; i < connections; i++) {
+				int seed = i;
+				results.add(clients.submit(() -> connect(port, seed, requests, depth)));
+			}
+
+			long responses = 0;
+			for (Future<Long> result : results) {
+				try {
+					responses += result.get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+			return responses;
+		} finally {
+			clients.shutdownNow();
+		}
+
+	}
+
+	/*
+	 * Runs one connection, writing a window of equations before reading their responses.
+	 */
+	private static long connect(int port, int seed, int requests, int depth) throws IOException {
+
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+			socket.setTcpNoDelay(true);
+			OutputStream output = socket.getOutputStream();
+			BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+			StringBuilder window = new StringBuilder();
+			StringBuilder expected = new StringBuilder();
+			long responses = 0;
+
+			for (int sent = 0; sent < requests; ) {
+				int size = Math.min(depth, requests - sent);
+				window.setLength(0);
+				for (int i = 0; i < size; i++) {
+					// roots are -(k+1) and -(k+2), so every response can be checked
+					int k = (seed + sent + i) % 1000;
+					window.append("1 ").append(2*k + 3).append(' ').append((k + 1)*(k + 2)).append('\n');
+				}
+				output.write(window.toString().getBytes(StandardCharsets.US_ASCII));
+				output.flush();
+
+				for (int i = 0; i < size; i++) {
+					String line = input.readLine();
+					if (line == null) throw new IOException("Server closed the connection after " + responses + " responses");
+					// the roots are integers, which the server prints without a fraction
+					int k = (seed + sent + i) % 1000;
+					expected.setLength(0);
+					expected.append("x1 = -").append(k + 2).append(", x2 = -").append(k + 1);
+					if (!line.contentEquals(expected)) throw new IOException("Expected " + expected + " but got: " + line);
+					responses++;
+				}
+				sent += size;
+			}
+
+			return responses;
+		}
+
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+
+		if (args.length == 0) {
+			System.err.println("Usage: QuadraticLoadClient port [connections] [requests per connection] [pipeline depth]");
+			return;
+		}
+		int port = Integer.parseInt(args[0]);
+		int connections = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		int requests = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+		int depth = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+
+		long start = System.nanoTime();
+		long responses = run(port, connections, requests, depth);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%d responses over %d connections in %.3f s (%.0f equations/s)%n", responses, connections, seconds,
+				responses / seconds);
+
+	}
+
+}
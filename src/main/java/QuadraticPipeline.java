@@ -0,0 +1,406 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pipelined batch mode of the Quadratic Equation Solver, producing exactly the output of QuadraticBatch.run.
+ * A reader thread tokenizes the input into batches of rows, a pool of workers validates and solves batches in parallel, a formatter
+ * renders them into text and the calling thread writes them, so reading, solving, formatting and writing overlap. Stages hand batches over
+ * through lock-free ring buffers. Batches come from a fixed pool that is recycled once written, which bounds memory and makes the reader
+ * wait when the writer falls behind, and each batch carries a sequence number so the formatter puts them back into input order.
+ */
+public final class QuadraticPipeline {
+
+	public static final int DEFAULT_BATCH_SIZE = 1024;
+
+	private static final int SPINS = 100; // busy waits before a stage starts parking
+	private static final long PARK_NANOS = 50_000;
+
+	private final QuadraticSolver solver;
+	private final int workers;
+	private final int batchSize;
+
+	/*
+	 * Creates a pipeline with one solving worker per available processor.
+	 */
+	public QuadraticPipeline() {
+		this(new QuadraticSolver(), Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+	}
+
+	public QuadraticPipeline(QuadraticSolver solver, int workers, int batchSize) {
+		if (solver == null)
+			throw new IllegalArgumentException("Solver cannot be null");
+		if (workers < 1)
+			throw new IllegalArgumentException("Number of workers must be positive");
+		if (batchSize < 1)
+			throw new IllegalArgumentException("Batch size must be positive");
+		this.solver = solver;
+		this.workers = workers;
+		this.batchSize = batchSize;
+	}
+
+	public int getWorkers() {
+		return workers;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/*
+	 * Solves every equation in the input and writes one line per equation to the sink. Returns the number of equations read.
+	 */
+	public long run(InputStream input, ResultSink output) throws IOException {
+
+		Job job = new Job(new ByteTokenizer(input));
+		Thread[] threads = new Thread[workers + 2];
+		threads[0] = new Thread(job::read, "quadratic-pipeline-reader");
+		for (int i = 0; i < workers; i++) threads[i + 1] = new Thread(job::solve, "quadratic-pipeline-solver-" + i);
+		threads[workers + 1] = new Thread(job::format, "quadratic-pipeline-formatter");
+		for (Thread thread : threads) {
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		try {
+			job.write(output);
+		} catch (IOException | RuntimeException | Error e) {
+			job.fail(e);
+		}
+
+		boolean interrupted = false;
+		for (Thread thread : threads) {
+			while (true) {
+				try {
+					thread.join();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+					job.fail(e);
+				}
+			}
+		}
+		if (interrupted) Thread.currentThread().interrupt();
+
+		Throwable failure = job.failure.get();
+		if (failure instanceof IOException) throw (IOException) failure;
+		if (failure instanceof RuntimeException) throw (RuntimeException) failure;
+		if (failure instanceof Error) throw (Error) failure;
+		if (failure != null) throw new IOException("Pipeline was interrupted", failure);
+		return job.equations;
+
+	}
+
+	/*
+	 * Waits a little longer each time a stage finds nothing to do.
+	 */
+	private static int idle(int spins) {
+
+		if (spins < SPINS) {
+			Thread.onSpinWait();
+		} else {
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+		return spins + 1;
+
+	}
+
+	/**
+	 * The state of one run: the batch pool, the buffers between stages and how far the reader got.
+	 */
+	private final class Job {
+
+		private final ByteTokenizer tokens;
+		private final int poolSize = 2*workers + 4; // enough batches for every stage to have one in hand and one waiting
+		private final RingBuffer<Batch> free = new RingBuffer<>(poolSize);
+		private final RingBuffer<Batch> parsed = new RingBuffer<>(poolSize);
+		private final RingBuffer<Batch> solved = new RingBuffer<>(poolSize);
+		private final RingBuffer<Batch> formatted = new RingBuffer<>(poolSize);
+		private final AtomicReference<Throwable> failure = new AtomicReference<>();
+		private volatile long batches = -1; // number of batches read, known once the reader is done
+		private volatile boolean formatterDone;
+		private long equations;
+
+		Job(ByteTokenizer tokens) {
+			this.tokens = tokens;
+			for (int i = 0; i < poolSize; i++) free.offer(new Batch(batchSize));
+		}
+
+		void fail(Throwable throwable) {
+			failure.compareAndSet(null, throwable);
+		}
+
+		private boolean failed() {
+			return failure.get() != null;
+		}
+
+		/*
+		 * Hands a batch to the next stage. The buffers hold the whole pool, so this only waits if another thread is mid-offer.
+		 */
+		private void publish(RingBuffer<Batch> buffer, Batch batch) {
+			int spins = 0;
+			while (!buffer.offer(batch)) spins = idle(spins);
+		}
+
+		/*
+		 * Takes a batch from the buffer, waiting until one arrives. Returns null once the stage should stop.
+		 */
+		private Batch take(RingBuffer<Batch> buffer) {
+			int spins = 0;
+			while (!failed()) {
+				Batch batch = buffer.poll();
+				if (batch != null) return batch;
+				spins = idle(spins);
+			}
+			return null;
+		}
+
+		/*
+		 * Reader stage: copies the tokens of up to batchSize equations into each batch, keeping incomplete equations like
+		 * QuadraticBatch does.
+		 */
+		void read() {
+
+			long sequence = 0;
+			try {
+				Batch batch = take(free);
+				while (batch != null && tokens.next()) {
+					int row = batch.rows;
+					int read = 0;
+					do {
+						batch.add(row, read, tokens);
+					} while (++read < 3 && tokens.nextInLine());
+					batch.read[row] = read;
+					batch.rows++;
+					equations++;
+
+					if (batch.rows == batchSize) {
+						batch.sequence = sequence++;
+						publish(parsed, batch);
+						batch = take(free);
+					}
+				}
+				if (batch != null && batch.rows > 0) {
+					batch.sequence = sequence++;
+					publish(parsed, batch);
+				}
+			} catch (IOException | RuntimeException | Error e) {
+				fail(e);
+			} finally {
+				batches = sequence;
+			}
+
+		}
+
+		/*
+		 * Solver stage, run by every worker: validates and solves whole batches as they arrive.
+		 */
+		void solve() {
+
+			double[] coefficients = new double[3];
+			try {
+				int spins = 0;
+				while (!failed()) {
+					boolean finished = batches >= 0; // read first, so an empty buffer afterwards means nothing more will arrive
+					Batch batch = parsed.poll();
+					if (batch == null) {
+						if (finished) return;
+						spins = idle(spins);
+						continue;
+					}
+					spins = 0;
+					for (int row = 0; row < batch.rows; row++) solve(batch, row, coefficients);
+					publish(solved, batch);
+				}
+			} catch (RuntimeException | Error e) {
+				fail(e);
+			}
+
+		}
+
+		private void solve(Batch batch, int row, double[] coefficients) {
+
+			String error = null;
+			for (int i = 0; i < batch.read[row]; i++) {
+				if (error == null) error = QuadraticBatch.parse(batch.token(row, i), coefficients, i);
+			}
+
+			if (batch.read[row] < 3) {
+				batch.messages[row] = QuadraticBatch.INCOMPLETE;
+			} else if (error != null) {
+				batch.messages[row] = error;
+			} else if (coefficients[0] == 0) {
+				batch.messages[row] = QuadraticBatch.A_IS_ZERO;
+			} else if (solver.trySolve(coefficients[0], coefficients[1], coefficients[2], batch.roots[row]) != Quadratic.STATUS_OK) {
+				batch.messages[row] = QuadraticBatch.NO_SOLUTION;
+			} else {
+				batch.messages[row] = null;
+			}
+
+		}
+
+		/*
+		 * Formatter stage: puts solved batches back into input order and renders each one as a single block of lines.
+		 */
+		void format() {
+
+			Batch[] pending = new Batch[poolSize]; // sequences in flight span fewer than poolSize, so they never share a slot
+			DoubleFormatter formatter = new DoubleFormatter();
+			long next = 0;
+			try {
+				int spins = 0;
+				while (!failed()) {
+					long total = batches;
+					if (total >= 0 && next == total) return;
+
+					Batch batch = solved.poll();
+					if (batch != null) {
+						pending[(int) (batch.sequence % poolSize)] = batch;
+						spins = 0;
+					} else {
+						spins = idle(spins);
+					}
+
+					int slot = (int) (next % poolSize);
+					while (pending[slot] != null) {
+						Batch ready = pending[slot];
+						pending[slot] = null;
+						ready.format(formatter);
+						publish(formatted, ready);
+						slot = (int) (++next % poolSize);
+					}
+				}
+			} catch (RuntimeException | Error e) {
+				fail(e);
+			} finally {
+				formatterDone = true;
+			}
+
+		}
+
+		/*
+		 * Writer stage, run by the calling thread: writes formatted batches in order and returns them to the pool.
+		 */
+		void write(ResultSink output) throws IOException {
+
+			int spins = 0;
+			while (!failed()) {
+				boolean finished = formatterDone;
+				Batch batch = formatted.poll();
+				if (batch == null) {
+					if (finished) break;
+					spins = idle(spins);
+					continue;
+				}
+				spins = 0;
+				output.write(batch.text);
+				batch.clear();
+				publish(free, batch);
+			}
+			output.flush();
+
+		}
+
+	}
+
+	/**
+	 * A run of consecutive equations as raw token text, then as roots or error messages, then as output lines.
+	 */
+	private static final class Batch {
+
+		long sequence;
+		int rows;
+		final int[] read; // tokens read per row, fewer than three for an incomplete line
+		final int[] starts; // start of token i of row r at starts[3*r + i], its end at the next start
+		final int[] ends;
+		byte[] bytes = new byte[64];
+		int length;
+		final QuadraticRoots[] roots;
+		final String[] messages; // error message per row, or null if it was solved
+		final StringBuilder text = new StringBuilder();
+		private final Token token = new Token();
+
+		Batch(int size) {
+			read = new int[size];
+			starts = new int[3*size];
+			ends = new int[3*size];
+			roots = new QuadraticRoots[size];
+			for (int i = 0; i < size; i++) roots[i] = new QuadraticRoots();
+			messages = new String[size];
+		}
+
+		/*
+		 * Copies the current token as token i of the row, since the tokenizer reuses its buffer.
+		 */
+		void add(int row, int i, CharSequence value) {
+			int size = value.length();
+			if (length + size > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(2*bytes.length, length + size));
+			starts[3*row + i] = length;
+			for (int k = 0; k < size; k++) bytes[length++] = (byte) value.charAt(k);
+			ends[3*row + i] = length;
+		}
+
+		/*
+		 * Returns a view of token i of the row. The view is reused by the next call.
+		 */
+		CharSequence token(int row, int i) {
+			token.start = starts[3*row + i];
+			token.end = ends[3*row + i];
+			return token;
+		}
+
+		/*
+		 * Renders every row as one line, without the final line break that the sink adds.
+		 */
+		void format(DoubleFormatter formatter) {
+			text.setLength(0);
+			for (int row = 0; row < rows; row++) {
+				if (row > 0) text.append('\n');
+				if (messages[row] != null) {
+					text.append(messages[row]);
+				} else {
+					roots[row].appendTo(text, formatter, ", ");
+				}
+			}
+		}
+
+		void clear() {
+			rows = 0;
+			length = 0;
+		}
+
+		/**
+		 * A token stored in the batch, read as ISO-8859-1 like ByteTokenizer does.
+		 */
+		private final class Token implements CharSequence {
+
+			int start, end;
+
+			@Override
+			public int length() {
+				return end - start;
+			}
+
+			@Override
+			public char charAt(int index) {
+				return (char) (bytes[start + index] & 0xFF);
+			}
+
+			@Override
+			public CharSequence subSequence(int from, int to) {
+				return toString().subSequence(from, to);
+			}
+
+			@Override
+			public String toString() {
+				return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,302 @@
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A reactive stage that solves a stream of quadratic equations with backpressure.
+ * Each item is a coefficient triple {a, b, c}. Demand is requested from upstream one batch at a time, never more than the subscriber
+ * has asked for and never more than the batch size, and a batch is solved in one pass once all of it has arrived or upstream completes.
+ * The next batch is only requested after every solution of the previous one has been delivered, so at most one batch is held no matter
+ * how far the producer gets ahead. Failed equations are delivered with their status code rather than as errors. A processor serves a
+ * single subscriber.
+ */
+public final class QuadraticProcessor implements Flow.Processor<double[], QuadraticProcessor.Solution> {
+
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
+	private final QuadraticSolver solver;
+	private final int batchSize;
+
+	// the batch being filled by upstream, or solved and being delivered downstream
+	private final double[] a, b, c;
+	private final int[] status;
+	private final QuadraticRoots[] roots; // each handed to the subscriber with its solution and then replaced
+	private int filled; // items received for the current batch and not yet solved, upstream only
+	private volatile int expected; // number of items requested for the current batch, 0 when none is outstanding
+	private volatile int solved; // number of solutions ready for delivery
+	private int delivered; // written by the drain loop only
+
+	private volatile Flow.Subscription upstream;
+	private volatile Flow.Subscriber<? super Solution> downstream;
+	private final AtomicLong demand = new AtomicLong();
+	private final AtomicInteger work = new AtomicInteger();
+	private volatile boolean done;
+	private volatile Throwable error;
+	private volatile boolean cancelled;
+	private boolean terminated;
+
+	public QuadraticProcessor() {
+		this(new QuadraticSolver(), DEFAULT_BATCH_SIZE);
+	}
+
+	public QuadraticProcessor(QuadraticSolver solver, int batchSize) {
+		if (solver == null)
+			throw new IllegalArgumentException("Solver cannot be null");
+		if (batchSize <= 0)
+			throw new IllegalArgumentException("Batch size must be positive");
+		this.solver = solver;
+		this.batchSize = batchSize;
+		a = new double[batchSize];
+		b = new double[batchSize];
+		c = new double[batchSize];
+		status = new int[batchSize];
+		roots = new QuadraticRoots[batchSize];
+		for (int i = 0; i < batchSize; i++) roots[i] = new QuadraticRoots();
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/*
+	 * Subscribes the single downstream subscriber. Later subscribers are rejected with an IllegalStateException.
+	 */
+	@Override
+	public void subscribe(Flow.Subscriber<? super Solution> subscriber) {
+
+		if (subscriber == null)
+			throw new NullPointerException("Subscriber cannot be null");
+
+		synchronized (this) {
+			if (downstream != null) {
+				subscriber.onSubscribe(new Flow.Subscription() {
+					public void request(long n) {
+					}
+
+					public void cancel() {
+					}
+				});
+				subscriber.onError(new IllegalStateException("A processor serves a single subscriber"));
+				return;
+			}
+			downstream = subscriber;
+		}
+		subscriber.onSubscribe(new Flow.Subscription() {
+			public void request(long n) {
+				QuadraticProcessor.this.request(n);
+			}
+
+			public void cancel() {
+				QuadraticProcessor.this.cancel();
+			}
+		});
+		drain();
+
+	}
+
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+
+		if (upstream != null || cancelled || done) {
+			subscription.cancel();
+			return;
+		}
+		upstream = subscription;
+		drain();
+
+	}
+
+	/*
+	 * Stores the coefficients of the next equation and solves the batch once it is complete.
+	 */
+	@Override
+	public void onNext(double[] coefficients) {
+
+		if (done || cancelled) return;
+		if (coefficients == null || coefficients.length != 3 || filled >= expected) {
+			upstream.cancel();
+			onError(coefficients == null || coefficients.length != 3 ?
+					new IllegalArgumentException("Each item must hold the three coefficients a, b and c") :
+					new IllegalStateException("More items were delivered than requested"));
+			return;
+		}
+
+		a[filled] = coefficients[0];
+		b[filled] = coefficients[1];
+		c[filled] = coefficients[2];
+		if (++filled == expected) solveBatch();
+
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+
+		if (done) return;
+		error = throwable;
+		done = true;
+		drain();
+
+	}
+
+	/*
+	 * Solves a partial batch before completing, so every equation received is answered.
+	 */
+	@Override
+	public void onComplete() {
+
+		if (done) return;
+		if (filled > 0) solveBatch();
+		done = true; // written after the last batch is published, so the drain loop never completes ahead of it
+		drain();
+
+	}
+
+	private void solveBatch() {
+
+		// solved into holders rather than root columns, so the complex flag and precision tier reach the subscriber
+		for (int i = 0; i < filled; i++) status[i] = solver.solveInto(a[i], b[i], c[i], roots[i]);
+		if (SolverMetrics.ENABLED) SolverMetrics.recordBatch(status, 0, filled);
+		solved = filled; // publishes the results to the drain loop
+		filled = 0; // nothing more arrives until the drain loop requests the next batch
+		drain();
+
+	}
+
+	private void request(long n) {
+
+		if (n <= 0) {
+			Flow.Subscription subscription = upstream;
+			if (subscription != null) subscription.cancel();
+			error = new IllegalArgumentException("Demand must be positive, see rule 3.9");
+			done = true;
+			drain();
+			return;
+		}
+		demand.accumulateAndGet(n, (current, added) -> (current + added < 0) ? Long.MAX_VALUE : current + added);
+		drain();
+
+	}
+
+	private void cancel() {
+
+		cancelled = true;
+		Flow.Subscription subscription = upstream;
+		if (subscription != null) subscription.cancel();
+
+	}
+
+	/*
+	 * Delivers solved equations while there is demand and requests the next batch once the current one is delivered. Only one thread
+	 * runs the loop at a time; signals that arrive meanwhile make it go round again.
+	 */
+	private void drain() {
+
+		if (work.getAndIncrement() != 0) return;
+
+		int missed = 1;
+		do {
+			Flow.Subscriber<? super Solution> subscriber = downstream;
+			Flow.Subscription subscription = upstream;
+			if (subscriber != null && !terminated && !cancelled) {
+				// errors cut ahead of undelivered solutions
+				Throwable failure = error;
+				if (failure != null) {
+					terminated = true;
+					subscriber.onError(failure);
+				} else {
+					deliver(subscriber, subscription);
+				}
+			}
+			missed = work.addAndGet(-missed);
+		} while (missed != 0);
+
+	}
+
+	/*
+	 * Delivers what the current batch and the demand allow, then frees the batch or requests the next one. Called by the drain loop only.
+	 */
+	private void deliver(Flow.Subscriber<? super Solution> subscriber, Flow.Subscription subscription) {
+
+		boolean finished = done; // read first, so ready includes everything upstream published
+		int ready = solved;
+		while (delivered < ready && demand.get() > 0 && !cancelled) {
+			subscriber.onNext(solution(delivered++));
+			demand.decrementAndGet();
+		}
+
+		if (delivered == ready && ready > 0) {
+			// the whole batch is delivered, so its arrays can be refilled
+			delivered = 0;
+			solved = 0;
+			expected = 0;
+		}
+
+		if (solved == 0) {
+			if (finished) {
+				terminated = true;
+				subscriber.onComplete();
+			} else if (expected == 0 && subscription != null && demand.get() > 0 && !cancelled) {
+				int next = (int) Math.min(batchSize, demand.get());
+				expected = next;
+				subscription.request(next);
+			}
+		}
+
+	}
+
+	/*
+	 * Hands the roots of equation i of the current batch to a solution the subscriber can keep, and gives the slot a fresh holder.
+	 */
+	private Solution solution(int i) {
+
+		Solution solution = new Solution(a[i], b[i], c[i], roots[i], status[i]);
+		roots[i] = new QuadraticRoots();
+		return solution;
+
+	}
+
+	/**
+	 * The outcome of one equation: its coefficients, its roots, and STATUS_OK or the reason it failed, in which case there are no roots.
+	 */
+	public static final class Solution {
+
+		private final double a, b, c;
+		private final QuadraticRoots roots;
+		private final int status;
+
+		Solution(double a, double b, double c, QuadraticRoots roots, int status) {
+			this.a = a;
+			this.b = b;
+			this.c = c;
+			this.roots = roots;
+			this.status = status;
+		}
+
+		public double getA() {
+			return a;
+		}
+
+		public double getB() {
+			return b;
+		}
+
+		public double getC() {
+			return c;
+		}
+
+		public QuadraticRoots getRoots() {
+			return roots;
+		}
+
+		public int getStatus() {
+			return status;
+		}
+
+		@Override
+		public String toString() {
+			return (status == Quadratic.STATUS_OK) ? roots.toString() : "status " + status;
+		}
+
+	}
+
+}
@@ -0,0 +1,174 @@
+/**
+ * Roots of a quadratic equation as computed by the Quadratic Equation Solver.
+ * The "x1 = ... / x2 = ..." text is only rendered when toString or appendTo is called, so callers that just need the
+ * numbers never pay for formatting. An instance can be passed back to the solver and reused as a mutable holder.
+ */
+public final class QuadraticRoots {
+
+	private double real1, real2; // real parts of x1 and x2
+	private double imaginary; // imaginary part of x1, x2 is its conjugate
+	private boolean complex;
+	private int count;
+	private PrecisionTier tier;
+
+	public QuadraticRoots() {
+		clear();
+	}
+
+	/*
+	 * Stores two real roots.
+	 */
+	void setReal(double x1, double x2) {
+		real1 = x1;
+		real2 = x2;
+		imaginary = 0;
+		complex = false;
+		count = (x1 == x2) ? 1 : 2;
+		tier = PrecisionTier.DOUBLE;
+	}
+
+	/*
+	 * Stores a pair of complex conjugate roots real +/- imaginary*i.
+	 */
+	void setComplex(double real, double imaginary) {
+		real1 = real2 = real;
+		this.imaginary = imaginary;
+		complex = true;
+		count = 2;
+		tier = PrecisionTier.DOUBLE;
+	}
+
+	/*
+	 * Records the arithmetic that produced the stored roots.
+	 */
+	void setPrecisionTier(PrecisionTier tier) {
+		this.tier = tier;
+	}
+
+	/*
+	 * Multiplies the stored roots by 2^exponent. Returns false if a root does not fit in a double.
+	 */
+	boolean scale(int exponent) {
+		real1 = Math.scalb(real1, exponent);
+		real2 = Math.scalb(real2, exponent);
+		imaginary = Math.scalb(imaginary, exponent);
+		if (!complex) count = (real1 == real2) ? 1 : 2;
+		return Double.isFinite(real1) && Double.isFinite(real2) && Double.isFinite(imaginary);
+	}
+
+	/*
+	 * Copies the roots into row i of the batch output arrays. See Quadratic.solveQuadratic for their layout.
+	 */
+	void copyTo(double[] real, double[] imaginary, int[] count, int i) {
+		real[2*i] = real1;
+		real[2*i + 1] = real2;
+		imaginary[2*i] = getImaginary1();
+		imaginary[2*i + 1] = getImaginary2();
+		count[i] = this.count;
+	}
+
+	/*
+	 * Marks the holder as not containing any roots.
+	 */
+	void clear() {
+		real1 = real2 = imaginary = Double.NaN;
+		complex = false;
+		count = 0;
+		tier = null;
+	}
+
+	public double getReal1() {
+		return real1;
+	}
+
+	public double getReal2() {
+		return real2;
+	}
+
+	public double getImaginary1() {
+		return imaginary;
+	}
+
+	public double getImaginary2() {
+		return -imaginary;
+	}
+
+	/*
+	 * Returns true when the roots are a complex conjugate pair.
+	 */
+	public boolean isComplex() {
+		return complex;
+	}
+
+	/*
+	 * Returns the number of distinct roots, or zero if no roots have been stored.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/*
+	 * Returns the arithmetic that produced the roots, or null if no roots have been stored.
+	 */
+	public PrecisionTier getPrecisionTier() {
+		return tier;
+	}
+
+	/*
+	 * Renders the roots the same way the solver prints them.
+	 */
+	@Override
+	public String toString() {
+
+		return appendTo(new StringBuilder(), new DoubleFormatter()).toString();
+
+	}
+
+	/*
+	 * Appends the rendered roots to a builder. Reusing the builder and formatter avoids creating garbage per equation.
+	 */
+	public StringBuilder appendTo(StringBuilder output, DoubleFormatter formatter) {
+
+		return appendTo(output, formatter, "\n");
+
+	}
+
+	/*
+	 * Appends the rendered roots to a builder, separating x1 and x2 with the given text instead of a new line.
+	 */
+	public StringBuilder appendTo(StringBuilder output, DoubleFormatter formatter, String separator) {
+
+		if (count == 0) return output.append("no roots");
+
+		if (complex) {
+			// don't print redundant zeros and signs
+			output.append("x1 = ");
+			if (real1 != 0) {
+				formatter.append(real1, output);
+				output.append(" + ");
+			}
+			if (imaginary != 1) formatter.append(imaginary, output);
+			output.append('i').append(separator).append("x2 = ");
+			if (real1 != 0) {
+				formatter.append(real1, output);
+				output.append(" - ");
+			} else {
+				output.append('-');
+			}
+			if (imaginary != 1) formatter.append(imaginary, output);
+			output.append('i');
+		} else {
+			output.append("x1 = ");
+			formatter.append(real1, output);
+			// don't print the same root twice
+			if (count == 2) {
+				output.append(separator).append("x2 = ");
+				formatter.append(real2, output);
+			}
+		}
+
+		return output;
+
+	}
+
+}
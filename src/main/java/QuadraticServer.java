@@ -0,0 +1,125 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.channels.Channels;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Local service mode of the Quadratic Equation Solver.
+ * Clients connect over TCP and send coefficient triples, one equation per line, using the same syntax as batch mode. Each equation is
+ * answered with one line in the order it was received, and requests may be pipelined: responses are buffered and flushed whenever the
+ * client has nothing more waiting. Every connection is served by its own thread, which is a virtual thread when the JVM supports them
+ * (Java 21 and later) and a pooled platform thread otherwise.
+ */
+public final class QuadraticServer implements Closeable {
+
+	static final int OUTPUT_BUFFER_SIZE = 1 << 13;
+	static final long ACCEPT_BACKOFF_MAX_MILLIS = 1000;
+
+	private final ServerSocket server;
+	private final QuadraticSolver solver;
+	private final ExecutorService connections;
+	private final Thread acceptor;
+
+	/*
+	 * Starts a server on the loopback interface. Port 0 picks a free port.
+	 */
+	public QuadraticServer(int port) throws IOException {
+		this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), new QuadraticSolver());
+	}
+
+	public QuadraticServer(InetSocketAddress address, QuadraticSolver solver) throws IOException {
+		if (solver == null)
+			throw new IllegalArgumentException("Solver cannot be null");
+		this.solver = solver;
+		this.server = new ServerSocket();
+		this.server.bind(address, 1024);
+		this.connections = newThreadPerTaskExecutor();
+		this.acceptor = new Thread(this::accept, "quadratic-server");
+		this.acceptor.start();
+	}
+
+	public int getPort() {
+		return server.getLocalPort();
+	}
+
+	/*
+	 * Blocks until the server is closed.
+	 */
+	public void await() throws InterruptedException {
+		acceptor.join();
+	}
+
+	@Override
+	public void close() throws IOException {
+		server.close();
+		connections.shutdownNow();
+	}
+
+	/*
+	 * Accepts connections until the server socket is closed. A failed accept, such as running out of file descriptors, is retried
+	 * after a pause that doubles with every consecutive failure, and is logged once it has repeated.
+	 */
+	private void accept() {
+		int failures = 0;
+		while (!server.isClosed()) {
+			try {
+				Socket socket = server.accept();
+				failures = 0;
+				try {
+					connections.execute(() -> serve(socket));
+				} catch (RejectedExecutionException e) {
+					socket.close(); // the server is shutting down
+				}
+			} catch (IOException e) {
+				if (server.isClosed()) return;
+				// a single failure is usually a connection reset before it could be served
+				if (++failures > 1) System.err.println("Accept failed " + failures + " times in a row: " + e.getMessage());
+				try {
+					Thread.sleep(Math.min(ACCEPT_BACKOFF_MAX_MILLIS, 1L << Math.min(failures - 1, 10)));
+				} catch (InterruptedException interrupted) {
+					return;
+				}
+			}
+		}
+	}
+
+	/*
+	 * Answers every equation sent on a connection until the client closes it.
+	 */
+	private void serve(Socket socket) {
+		try (Socket client = socket) {
+			client.setTcpNoDelay(true);
+			ResultSink output = ResultSink.of(Channels.newChannel(client.getOutputStream()), OUTPUT_BUFFER_SIZE);
+			QuadraticBatch.run(new ByteTokenizer(client.getInputStream(), OUTPUT_BUFFER_SIZE), output, solver, true);
+		} catch (SocketException e) {
+			// the client went away
+		} catch (IOException e) {
+			System.err.println("Connection failed: " + e.getMessage());
+		}
+	}
+
+	/*
+	 * Creates an executor that starts a new virtual thread per task if available, falling back to a cached pool of daemon threads.
+	 */
+	static ExecutorService newThreadPerTaskExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(task -> {
+				Thread thread = new Thread(task, "quadratic-connection");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+}
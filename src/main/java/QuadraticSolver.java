@@ -0,0 +1,311 @@
+/**
+ * A Quadratic Equation Solver bound to a square root strategy.
+ * Uses the same mixed approach as Quadratic, but each instance can choose how the square root of the discriminant is computed.
+ * Instances are immutable and can be shared between threads.
+ */
+public class QuadraticSolver {
+
+	private static final double MIN_SAFE_PRODUCT = 0x1p-969;
+
+	private final SqrtStrategy sqrt;
+	private final boolean scaling;
+
+	/*
+	 * Creates a solver that uses the fast converging seeded Newton square root.
+	 */
+	public QuadraticSolver() {
+		this(SqrtStrategy.SEEDED_NEWTON);
+	}
+
+	public QuadraticSolver(SqrtStrategy sqrt) {
+		this(sqrt, false);
+	}
+
+	/*
+	 * Creates a solver that, if scaling is set, retries equations whose discriminant overflows or underflows with the coefficients
+	 * rescaled by powers of two. Equations that solve without scaling get bit-identical roots either way.
+	 */
+	public QuadraticSolver(SqrtStrategy sqrt, boolean scaling) {
+		if (sqrt == null)
+			throw new IllegalArgumentException("Square root strategy cannot be null");
+		this.sqrt = sqrt;
+		this.scaling = scaling;
+	}
+
+	public SqrtStrategy getSqrtStrategy() {
+		return sqrt;
+	}
+
+	public boolean isScaling() {
+		return scaling;
+	}
+
+	/*
+	 * Solves the quadratic equation and returns its roots. Throws an exception if precision is lost during calculation.
+	 */
+	public QuadraticRoots solve(double a, double b, double c) throws NotEnoughPrecisionException {
+
+		QuadraticRoots roots = new QuadraticRoots();
+		solve(a, b, c, roots);
+		return roots;
+
+	}
+
+	/*
+	 * Solves the quadratic equation into a reusable holder. Throws an exception if precision is lost during calculation.
+	 */
+	public void solve(double a, double b, double c, QuadraticRoots roots) throws NotEnoughPrecisionException {
+
+		int status = trySolve(a, b, c, roots);
+		if (status != Quadratic.STATUS_OK)
+			throw NotEnoughPrecisionException.forStatus(status);
+
+	}
+
+	/*
+	 * Solves the quadratic equation into a reusable holder and returns STATUS_OK or the reason it failed, without throwing.
+	 */
+	public int trySolve(double a, double b, double c, QuadraticRoots roots) {
+
+		if (!SolverMetrics.ENABLED) return solveInto(a, b, c, roots);
+
+		long start = System.nanoTime();
+		int status = solveInto(a, b, c, roots);
+		SolverMetrics.recordSolve(status, System.nanoTime() - start);
+		return status;
+
+	}
+
+	/*
+	 * Solves a batch of quadratic equations given as coefficient columns. See Quadratic.solveQuadratic for the layout of the output arrays.
+	 */
+	public void solve(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status) {
+
+		checkBatch(a, b, c, real, imaginary, count, status);
+		solve(a, b, c, real, imaginary, count, status, 0, a.length);
+
+	}
+
+	/*
+	 * Solves a batch held in byte buffers in place, without staging it in heap arrays. The coefficient columns hold one double per row,
+	 * the real and imaginary columns two consecutive doubles per row and the count and status columns one int per row.
+	 */
+	public void solve(BufferColumn a, BufferColumn b, BufferColumn c, BufferColumn real, BufferColumn imaginary, BufferColumn count,
+			BufferColumn status, int rows) {
+
+		if (rows < 0)
+			throw new IllegalArgumentException("Row count cannot be negative");
+		a.check(rows, 8, "a");
+		b.check(rows, 8, "b");
+		c.check(rows, 8, "c");
+		real.check(rows, 16, "real");
+		imaginary.check(rows, 16, "imaginary");
+		count.check(rows, 4, "count");
+		status.check(rows, 4, "status");
+
+		QuadraticRoots roots = new QuadraticRoots(); // reused for every equation
+		for (int i = 0; i < rows; i++) {
+			int outcome = solveInto(a.getDouble(i), b.getDouble(i), c.getDouble(i), roots);
+			if (SolverMetrics.ENABLED) SolverMetrics.recordBatch(outcome);
+			status.putInt(i, outcome);
+			real.putDouble(i, 0, roots.getReal1());
+			real.putDouble(i, 1, roots.getReal2());
+			imaginary.putDouble(i, 0, roots.getImaginary1());
+			imaginary.putDouble(i, 1, roots.getImaginary2());
+			count.putInt(i, roots.getCount());
+		}
+
+	}
+
+	/*
+	 * Solves the equations with indexes from (inclusive) to to (exclusive) of a batch.
+	 */
+	public final void solve(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status, int from,
+			int to) {
+
+		solveRange(a, b, c, real, imaginary, count, status, from, to);
+		if (SolverMetrics.ENABLED) SolverMetrics.recordBatch(status, from, to);
+
+	}
+
+	/*
+	 * Solves a range of a batch without recording it. Subclasses that cannot use the lane-parallel kernel override this.
+	 */
+	void solveRange(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status, int from, int to) {
+
+		// the intrinsic square root can run lane-parallel
+		if (sqrt == SqrtStrategy.INTRINSIC) {
+			QuadraticKernel.solve(a, b, c, real, imaginary, count, status, from, to);
+			if (scaling) retryScaled(a, b, c, real, imaginary, count, status, from, to);
+			return;
+		}
+
+		solveEach(a, b, c, real, imaginary, count, status, from, to);
+
+	}
+
+	/*
+	 * Returns true if every equation that passes the precision check of solveUnscaled gets the kind of roots given by the sign of its
+	 * discriminant, so RootQuery can count it without solving. Subclasses that solve such equations differently return false.
+	 */
+	boolean classifiesBySign() {
+		return true;
+	}
+
+	/*
+	 * Solves the equations of a batch one at a time through solveInto.
+	 */
+	void solveEach(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status, int from, int to) {
+
+		QuadraticRoots roots = new QuadraticRoots(); // reused for every equation
+		for (int i = from; i < to; i++) {
+			status[i] = solveInto(a[i], b[i], c[i], roots);
+			roots.copyTo(real, imaginary, count, i);
+		}
+
+	}
+
+	/*
+	 * Solves the failed equations of a batch again with scaled coefficients.
+	 */
+	private void retryScaled(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status, int from,
+			int to) {
+
+		QuadraticRoots roots = new QuadraticRoots();
+		for (int i = from; i < to; i++) {
+			if (status[i] == Quadratic.STATUS_OK) continue;
+			status[i] = solveScaled(a[i], b[i], c[i], roots);
+			roots.copyTo(real, imaginary, count, i);
+		}
+
+	}
+
+	/*
+	 * Checks that the batch output arrays are large enough for the coefficient columns.
+	 */
+	static void checkBatch(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status) {
+
+		int n = a.length;
+		if (b.length != n || c.length != n)
+			throw new IllegalArgumentException("Coefficient arrays must have the same length");
+		if (real.length < 2*n || imaginary.length < 2*n || count.length < n || status.length < n)
+			throw new IllegalArgumentException("Output arrays are too small for " + n + " equations");
+
+	}
+
+	/*
+	 * Solves a single equation into the holder and returns its status code.
+	 */
+	int solveInto(double a, double b, double c, QuadraticRoots roots) {
+
+		int status = solveUnscaled(a, b, c, roots);
+		if (status != Quadratic.STATUS_OK && scaling)
+			status = solveScaled(a, b, c, roots);
+		return status;
+
+	}
+
+	/*
+	 * Solves the equation with x = 2^t*y substituted and every coefficient multiplied by 2^s, which leaves the roots unchanged. t gives
+	 * a and c the same exponent and s brings the largest term close to one, so b*b and 4*a*c neither overflow nor underflow unless the
+	 * coefficients are too far apart to matter to each other. The roots are scaled back by 2^t.
+	 */
+	int solveScaled(double a, double b, double c, QuadraticRoots roots) {
+
+		if (a == 0 || !Double.isFinite(a) || !Double.isFinite(b) || !Double.isFinite(c)) {
+			roots.clear();
+			return failureStatus(a, b, c);
+		}
+
+		int ea = exponent(a), eb = exponent(b), ec = exponent(c);
+		int t = (c != 0) ? (ec - ea) >> 1 : (b != 0) ? eb - ea : 0;
+		int s = -(ea + 2*t);
+		if (b != 0) s = Math.min(s, -(eb + t));
+		if (c != 0) s = Math.min(s, -ec);
+
+		int status = solveUnscaled(Math.scalb(a, s + 2*t), Math.scalb(b, s + t), Math.scalb(c, s), roots);
+		if (status == Quadratic.STATUS_OK && !roots.scale(t)) {
+			// the roots themselves are out of range
+			roots.clear();
+			status = Quadratic.STATUS_OVERFLOW;
+		}
+		return status;
+
+	}
+
+	/*
+	 * Tells why an equation failed the precision check. Only called on the failure path, so it can afford to recompute the products.
+	 */
+	static int failureStatus(double a, double b, double c) {
+
+		if (Double.isNaN(a) || Double.isNaN(b) || Double.isNaN(c)) return Quadratic.STATUS_NAN_INPUT;
+		if (a == 0) return Quadratic.STATUS_NOT_ENOUGH_PRECISION; // not a quadratic equation
+		if (Double.isInfinite(a) || Double.isInfinite(b) || Double.isInfinite(c)) return Quadratic.STATUS_OVERFLOW;
+		double bb = b*b;
+		double ac4 = 4*a*c;
+		if (Double.isInfinite(bb) || Double.isInfinite(ac4) || Double.isInfinite(bb - ac4)) return Quadratic.STATUS_OVERFLOW;
+		if (bb == 0 || underflowed(bb, b, ac4, c)) return Quadratic.STATUS_UNDERFLOW;
+		return Quadratic.STATUS_CANCELLATION;
+
+	}
+
+	/*
+	 * Returns true when b*b or 4*a*c of a non-zero b or c fell below the normal range, losing precision or vanishing altogether, and
+	 * the other product is below 2^-969, where that loss is no longer negligible next to it.
+	 */
+	static boolean underflowed(double bb, double b, double ac4, double c) {
+
+		boolean lost = (bb < Double.MIN_NORMAL && b != 0) || (Math.abs(ac4) < Double.MIN_NORMAL && c != 0);
+		return lost && Math.max(bb, Math.abs(ac4)) < MIN_SAFE_PRODUCT;
+
+	}
+
+	/*
+	 * Returns the unbiased exponent of a non-zero value, including subnormal ones.
+	 */
+	private static int exponent(double value) {
+		return (Math.abs(value) >= Double.MIN_NORMAL) ? Math.getExponent(value) : Math.getExponent(value*0x1p54) - 54;
+	}
+
+	/*
+	 * Solves a single equation as given into the holder and returns its status code.
+	 */
+	int solveUnscaled(double a, double b, double c, QuadraticRoots roots) {
+
+		return solveUnscaled(a, b, c, roots, sqrt);
+
+	}
+
+	/*
+	 * Solves a single equation as given, taking the square root of the discriminant with the given strategy instead of the solver's own.
+	 * Lets SweepSolver seed the square root from the previous equation.
+	 */
+	int solveUnscaled(double a, double b, double c, QuadraticRoots roots, SqrtStrategy sqrt) {
+
+		double root, q;
+		double bb = b*b;
+		double ac4 = 4*a*c;
+		double discriminant = bb - ac4;
+
+		// check for overflow, for products that lost precision to underflow, and for b^2 >> 4ac, before an infinite discriminant
+		// reaches the square root
+		if (!Double.isFinite(discriminant) || discriminant == bb || underflowed(bb, b, ac4, c)) {
+			roots.clear();
+			return failureStatus(a, b, c);
+		}
+
+		if (discriminant < 0) { // complex roots
+			root = sqrt.sqrt(-1*discriminant);
+			roots.setComplex((-1*b)/(2*a), root/(2*a));
+		} else { // real roots
+			root = sqrt.sqrt(discriminant);
+			// mixed approach to avoid subtractive cancellation
+			q = (-0.5) * (b + Quadratic.sign(b)*root);
+			roots.setReal(q/a, c/q);
+		}
+
+		return Quadratic.STATUS_OK;
+
+	}
+
+}
@@ -0,0 +1,222 @@
+/**
+ * Exact roots of a quadratic equation with integer coefficients, as computed by IntegerQuadraticSolver.
+ * Each root is held as a reduced fraction when the discriminant is a perfect square, and as the nearest double otherwise. For complex
+ * roots the first part is the real part, which is always rational, and the second part is the imaginary part of x1. An instance can be
+ * passed back to the solver and reused as a mutable holder.
+ */
+public final class RationalRoots {
+
+	// x1 and x2, or the real and imaginary parts of x1 when complex; a zero denominator marks an irrational part
+	private long numerator1, denominator1, numerator2, denominator2;
+	private double value1, value2;
+	private boolean complex;
+	private int count;
+
+	public RationalRoots() {
+		clear();
+	}
+
+	/*
+	 * Stores two real roots n1/d1 and n2/d2.
+	 */
+	void setRational(long n1, long d1, long n2, long d2) {
+		set1(n1, d1);
+		set2(n2, d2);
+		complex = false;
+		count = (numerator1 == numerator2 && denominator1 == denominator2) ? 1 : 2;
+	}
+
+	/*
+	 * Stores two irrational real roots.
+	 */
+	void setIrrational(double x1, double x2) {
+		numerator1 = numerator2 = denominator1 = denominator2 = 0;
+		value1 = x1;
+		value2 = x2;
+		complex = false;
+		count = 2;
+	}
+
+	/*
+	 * Stores a pair of complex conjugate roots with rational real part n/d and an imaginary part given as a fraction, or as a double
+	 * if imaginaryDenominator is zero.
+	 */
+	void setComplex(long n, long d, long imaginaryNumerator, long imaginaryDenominator, double imaginary) {
+		set1(n, d);
+		if (imaginaryDenominator != 0) {
+			set2(imaginaryNumerator, imaginaryDenominator);
+		} else {
+			numerator2 = denominator2 = 0;
+			value2 = imaginary;
+		}
+		complex = true;
+		count = 2;
+	}
+
+	/*
+	 * Marks the holder as not containing any roots.
+	 */
+	void clear() {
+		numerator1 = numerator2 = denominator1 = denominator2 = 0;
+		value1 = value2 = Double.NaN;
+		complex = false;
+		count = 0;
+	}
+
+	private void set1(long n, long d) {
+		long g = gcd(n, d) * Long.signum(d);
+		numerator1 = n/g;
+		denominator1 = d/g;
+		value1 = (double) numerator1 / denominator1;
+	}
+
+	private void set2(long n, long d) {
+		long g = gcd(n, d) * Long.signum(d);
+		numerator2 = n/g;
+		denominator2 = d/g;
+		value2 = (double) numerator2 / denominator2;
+	}
+
+	/*
+	 * Binary GCD of two values that are not both zero and not Long.MIN_VALUE.
+	 */
+	static long gcd(long x, long y) {
+
+		x = Math.abs(x);
+		y = Math.abs(y);
+		if (x == 0) return y;
+		if (y == 0) return x;
+		int shift = Long.numberOfTrailingZeros(x | y);
+		x >>= Long.numberOfTrailingZeros(x);
+		while (y != 0) {
+			y >>= Long.numberOfTrailingZeros(y);
+			if (x > y) {
+				long t = x;
+				x = y;
+				y = t;
+			}
+			y -= x;
+		}
+		return x << shift;
+
+	}
+
+	/*
+	 * Returns true when every part of the roots is held as an exact fraction.
+	 */
+	public boolean isExact() {
+		return count > 0 && denominator1 != 0 && denominator2 != 0;
+	}
+
+	public boolean isComplex() {
+		return complex;
+	}
+
+	/*
+	 * Returns the number of distinct roots, or zero if no roots have been stored.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/*
+	 * Numerator and denominator of x1, or of the real part when complex. The denominator is positive, or zero for an irrational part.
+	 */
+	public long getNumerator1() {
+		return numerator1;
+	}
+
+	public long getDenominator1() {
+		return denominator1;
+	}
+
+	/*
+	 * Numerator and denominator of x2, or of the imaginary part of x1 when complex.
+	 */
+	public long getNumerator2() {
+		return numerator2;
+	}
+
+	public long getDenominator2() {
+		return denominator2;
+	}
+
+	public double getReal1() {
+		return value1;
+	}
+
+	public double getReal2() {
+		return complex ? value1 : value2;
+	}
+
+	public double getImaginary1() {
+		return complex ? value2 : 0;
+	}
+
+	public double getImaginary2() {
+		return complex ? -value2 : 0;
+	}
+
+	/*
+	 * Copies the nearest doubles into a floating-point holder.
+	 */
+	public void copyTo(QuadraticRoots roots) {
+
+		if (count == 0) {
+			roots.clear();
+		} else if (complex) {
+			roots.setComplex(value1, value2);
+		} else {
+			roots.setReal(value1, value2);
+		}
+
+	}
+
+	/*
+	 * Renders the roots like QuadraticRoots does, with exact parts written as fractions.
+	 */
+	@Override
+	public String toString() {
+
+		if (count == 0) return "no roots";
+
+		StringBuilder output = new StringBuilder();
+		DoubleFormatter formatter = new DoubleFormatter();
+		if (complex) {
+			// don't print redundant zeros and signs
+			boolean one = numerator2 == 1 && denominator2 == 1;
+			output.append("x1 = ");
+			if (numerator1 != 0) appendPart(output, formatter, numerator1, denominator1, value1).append(" + ");
+			if (!one) appendPart(output, formatter, numerator2, denominator2, value2);
+			output.append("i\nx2 = ");
+			if (numerator1 != 0) appendPart(output, formatter, numerator1, denominator1, value1).append(" - ");
+			else output.append('-');
+			if (!one) appendPart(output, formatter, numerator2, denominator2, value2);
+			output.append('i');
+		} else {
+			output.append("x1 = ");
+			appendPart(output, formatter, numerator1, denominator1, value1);
+			// don't print the same root twice
+			if (count == 2) {
+				output.append("\nx2 = ");
+				appendPart(output, formatter, numerator2, denominator2, value2);
+			}
+		}
+		return output.toString();
+
+	}
+
+	private static StringBuilder appendPart(StringBuilder output, DoubleFormatter formatter, long numerator, long denominator,
+			double value) {
+
+		if (denominator == 0) {
+			formatter.append(value, output);
+		} else {
+			output.append(numerator);
+			if (denominator != 1) output.append('/').append(denominator);
+		}
+		return output;
+
+	}
+
+}
@@ -0,0 +1,207 @@
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Destination for the text output of the Quadratic Equation Solver.
+ * Roots are rendered into a reused buffer, and every sink except the console only hands data to its target when the buffer is full
+ * or flush is called, so batch and service modes are not bound by a synchronized println per equation. Sinks are not thread-safe;
+ * give each thread its own.
+ */
+public abstract class ResultSink implements Flushable, Closeable {
+
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	protected final StringBuilder record = new StringBuilder(128);
+	private final DoubleFormatter formatter = new DoubleFormatter();
+
+	/*
+	 * Returns a sink that prints every record to System.out as soon as it is written, which is how the solver has always behaved.
+	 */
+	public static ResultSink console() {
+		return new ConsoleSink();
+	}
+
+	/*
+	 * Returns a sink that buffers records and appends them to any Appendable, such as a Writer.
+	 */
+	public static ResultSink of(Appendable target) {
+		return new AppendableSink(target, DEFAULT_BUFFER_SIZE);
+	}
+
+	public static ResultSink of(Appendable target, int bufferSize) {
+		return new AppendableSink(target, bufferSize);
+	}
+
+	/*
+	 * Returns a sink that encodes records as ASCII into a direct buffer and writes it to a channel whenever it fills up.
+	 */
+	public static ResultSink of(WritableByteChannel target) {
+		return new ChannelSink(target, DEFAULT_BUFFER_SIZE);
+	}
+
+	public static ResultSink of(WritableByteChannel target, int bufferSize) {
+		return new ChannelSink(target, bufferSize);
+	}
+
+	/*
+	 * Returns a sink that encodes records as ASCII straight into a caller-owned buffer. Throws BufferOverflowException when it is full.
+	 */
+	public static ResultSink of(ByteBuffer target) {
+		return new BufferSink(target);
+	}
+
+	/*
+	 * Writes the roots of an equation as one record.
+	 */
+	public void write(QuadraticRoots roots) throws IOException {
+		record.setLength(0);
+		roots.appendTo(record, formatter);
+		emit(record);
+	}
+
+	/*
+	 * Writes a line of text, such as an error message, as one record.
+	 */
+	public void write(CharSequence line) throws IOException {
+		record.setLength(0);
+		record.append(line);
+		emit(record);
+	}
+
+	/*
+	 * Hands a finished record to the target. The record is reused once this returns.
+	 */
+	protected abstract void emit(StringBuilder record) throws IOException;
+
+	@Override
+	public void flush() throws IOException {
+	}
+
+	@Override
+	public void close() throws IOException {
+		flush();
+	}
+
+	/*
+	 * Prints every record with System.out.println. System.out is looked up on every write so redirection keeps working.
+	 */
+	private static final class ConsoleSink extends ResultSink {
+
+		@Override
+		protected void emit(StringBuilder record) {
+			System.out.println(record);
+		}
+
+		@Override
+		public void flush() {
+			System.out.flush();
+		}
+
+	}
+
+	private static final class AppendableSink extends ResultSink {
+
+		private final Appendable target;
+		private final StringBuilder buffer;
+		private final int bufferSize;
+
+		AppendableSink(Appendable target, int bufferSize) {
+			if (target == null)
+				throw new IllegalArgumentException("Target cannot be null");
+			if (bufferSize < 1)
+				throw new IllegalArgumentException("Buffer size must be positive");
+			this.target = target;
+			this.bufferSize = bufferSize;
+			this.buffer = new StringBuilder(bufferSize);
+		}
+
+		@Override
+		protected void emit(StringBuilder record) throws IOException {
+			buffer.append(record).append('\n');
+			if (buffer.length() >= bufferSize) drain();
+		}
+
+		@Override
+		public void flush() throws IOException {
+			drain();
+			if (target instanceof Flushable) ((Flushable) target).flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+			if (target instanceof Closeable) ((Closeable) target).close();
+		}
+
+		private void drain() throws IOException {
+			target.append(buffer);
+			buffer.setLength(0);
+		}
+
+	}
+
+	private static final class ChannelSink extends ResultSink {
+
+		private final WritableByteChannel target;
+		private final ByteBuffer buffer;
+
+		ChannelSink(WritableByteChannel target, int bufferSize) {
+			if (target == null)
+				throw new IllegalArgumentException("Target cannot be null");
+			if (bufferSize < 1)
+				throw new IllegalArgumentException("Buffer size must be positive");
+			this.target = target;
+			this.buffer = ByteBuffer.allocateDirect(bufferSize);
+		}
+
+		@Override
+		protected void emit(StringBuilder record) throws IOException {
+			for (int i = 0, length = record.length(); i < length; i++) {
+				if (!buffer.hasRemaining()) drain();
+				buffer.put((byte) record.charAt(i));
+			}
+			if (!buffer.hasRemaining()) drain();
+			buffer.put((byte) '\n');
+		}
+
+		@Override
+		public void flush() throws IOException {
+			drain();
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+			target.close();
+		}
+
+		private void drain() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) target.write(buffer);
+			buffer.clear();
+		}
+
+	}
+
+	private static final class BufferSink extends ResultSink {
+
+		private final ByteBuffer target;
+
+		BufferSink(ByteBuffer target) {
+			if (target == null)
+				throw new IllegalArgumentException("Target cannot be null");
+			this.target = target;
+		}
+
+		@Override
+		protected void emit(StringBuilder record) {
+			for (int i = 0, length = record.length(); i < length; i++) target.put((byte) record.charAt(i));
+			target.put((byte) '\n');
+		}
+
+	}
+
+}
@@ -0,0 +1,98 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free queue for handing work between pipeline stages, safe for any number of producers and consumers.
+ * Every slot carries a sequence number that tells producers whether it is free for the current lap and consumers whether it has been
+ * filled, so offer and poll claim a slot with a single compare-and-set and never block. A full or empty buffer is reported to the caller,
+ * which decides how to wait.
+ */
+public final class RingBuffer<T> {
+
+	private final AtomicReferenceArray<T> slots;
+	private final AtomicLongArray sequences;
+	private final int mask;
+	private final AtomicLong head = new AtomicLong(); // next slot to poll
+	private final AtomicLong tail = new AtomicLong(); // next slot to offer
+
+	/*
+	 * Creates a buffer holding at least capacity elements, rounded up to a power of two.
+	 */
+	public RingBuffer(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30)
+			throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) size <<= 1;
+		slots = new AtomicReferenceArray<>(size);
+		sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) sequences.set(i, i);
+		mask = size - 1;
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+
+	/*
+	 * Adds an element. Returns false if the buffer is full.
+	 */
+	public boolean offer(T element) {
+
+		if (element == null)
+			throw new NullPointerException("Element cannot be null");
+
+		long position = tail.get();
+		while (true) {
+			int index = (int) position & mask;
+			long difference = sequences.get(index) - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					slots.lazySet(index, element);
+					sequences.set(index, position + 1); // publishes the element to consumers
+					return true;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				return false; // the slot still holds an element from the previous lap
+			} else {
+				position = tail.get(); // another producer claimed the slot
+			}
+		}
+
+	}
+
+	/*
+	 * Removes the oldest element. Returns null if the buffer is empty.
+	 */
+	public T poll() {
+
+		long position = head.get();
+		while (true) {
+			int index = (int) position & mask;
+			long difference = sequences.get(index) - (position + 1);
+			if (difference == 0) {
+				if (head.compareAndSet(position, position + 1)) {
+					T element = slots.get(index);
+					slots.lazySet(index, null);
+					sequences.set(index, position + mask + 1); // frees the slot for the next lap
+					return element;
+				}
+				position = head.get();
+			} else if (difference < 0) {
+				return null; // the slot has not been filled yet
+			} else {
+				position = head.get(); // another consumer took the element
+			}
+		}
+
+	}
+
+	/*
+	 * Returns true if no element is waiting. Only a hint while other threads are offering or polling.
+	 */
+	public boolean isEmpty() {
+		return head.get() >= tail.get();
+	}
+
+}
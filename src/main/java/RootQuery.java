@@ -0,0 +1,336 @@
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Answers aggregate questions about large batches of quadratic equations given as coefficient columns, without writing out the roots.
+ * The columns are split like in ParallelQuadraticSolver and every range is reduced to a partial answer on a ForkJoinPool, so only the
+ * answers are ever allocated. Counting by kind of roots needs only the sign of the discriminant and takes no square roots, unless the
+ * equation fails the solver's precision check or the solver does not solve in plain doubles; the other queries solve each equation into
+ * a holder reused by the range and keep what the query asks for. Equations the solver cannot solve are counted as failed and otherwise
+ * ignored.
+ */
+public final class RootQuery {
+
+	private final QuadraticSolver solver;
+	private final ForkJoinPool pool;
+	private final int threshold;
+
+	/*
+	 * Creates a query engine using the default QuadraticSolver and the common pool.
+	 */
+	public RootQuery() {
+		this(new QuadraticSolver(), ForkJoinPool.commonPool(), ParallelQuadraticSolver.DEFAULT_THRESHOLD);
+	}
+
+	/*
+	 * The threshold is rounded up to a multiple of 64, so ranges never share a word of a selection.
+	 */
+	public RootQuery(QuadraticSolver solver, ForkJoinPool pool, int threshold) {
+		if (solver == null || pool == null)
+			throw new IllegalArgumentException("Solver and pool cannot be null");
+		if (threshold < 1)
+			throw new IllegalArgumentException("Split threshold must be positive");
+		this.solver = solver;
+		this.pool = pool;
+		this.threshold = (threshold + 63) & ~63;
+	}
+
+	public int getThreshold() {
+		return threshold;
+	}
+
+	/*
+	 * Counts the equations with two distinct real roots, one repeated root, complex roots and no solution, from the sign of the
+	 * discriminant. Equations that fail the precision check are handed to the solver, which may still rescue them, and so is every
+	 * equation if the solver does not classify by sign, so the counts always agree with solving.
+	 */
+	public Counts classify(double[] a, double[] b, double[] c) {
+
+		check(a, b, c);
+		boolean bySign = solver.classifiesBySign();
+		return pool.invoke(new Scan<>(a.length, (from, to) -> {
+			Counts counts = new Counts();
+			QuadraticRoots roots = null;
+			for (int i = from; i < to; i++) {
+				double bb = b[i]*b[i];
+				double ac4 = 4*a[i]*c[i];
+				double discriminant = bb - ac4;
+				// same check as the solver
+				if (!bySign || !Double.isFinite(discriminant) || discriminant == bb || QuadraticSolver.underflowed(bb, b[i], ac4, c[i])) {
+					if (roots == null) roots = new QuadraticRoots();
+					counts.add(solve(a[i], b[i], c[i], roots), roots);
+				} else if (discriminant > 0) {
+					counts.real++;
+				} else if (discriminant == 0) {
+					counts.repeated++;
+				} else {
+					counts.complex++;
+				}
+			}
+			return counts;
+		}, Counts::merge));
+
+	}
+
+	/*
+	 * Counts the equations with at least one real root in [low, high].
+	 */
+	public long count(double[] a, double[] b, double[] c, double low, double high) {
+
+		check(a, b, c);
+		checkRange(low, high);
+		return pool.invoke(new Scan<>(a.length, (from, to) -> {
+			long matches = 0;
+			QuadraticRoots roots = new QuadraticRoots();
+			for (int i = from; i < to; i++) {
+				if (hasRootIn(a[i], b[i], c[i], low, high, roots)) matches++;
+			}
+			return matches;
+		}, Long::sum));
+
+	}
+
+	/*
+	 * Returns the indices of the equations with at least one real root in [low, high] as a bit set.
+	 */
+	public BitSet select(double[] a, double[] b, double[] c, double low, double high) {
+
+		check(a, b, c);
+		checkRange(low, high);
+		long[] words = new long[(a.length + 63) >>> 6];
+		pool.invoke(new Scan<>(a.length, (from, to) -> {
+			QuadraticRoots roots = new QuadraticRoots();
+			for (int i = from; i < to; i++) {
+				if (hasRootIn(a[i], b[i], c[i], low, high, roots)) words[i >>> 6] |= 1L << i;
+			}
+			return null;
+		}, (left, right) -> null));
+		return BitSet.valueOf(words);
+
+	}
+
+	/*
+	 * Returns the count, minimum, maximum and mean of the larger root of every equation with real roots.
+	 */
+	public Statistics statistics(double[] a, double[] b, double[] c) {
+
+		check(a, b, c);
+		return pool.invoke(new Scan<>(a.length, (from, to) -> {
+			Statistics statistics = new Statistics();
+			QuadraticRoots roots = new QuadraticRoots();
+			for (int i = from; i < to; i++) {
+				if (solve(a[i], b[i], c[i], roots) == Quadratic.STATUS_OK && !roots.isComplex())
+					statistics.add(Math.max(roots.getReal1(), roots.getReal2()));
+			}
+			return statistics;
+		}, Statistics::merge));
+
+	}
+
+	/*
+	 * Counts the larger root of every equation with real roots into bins equal-width bins covering [low, high). Roots outside the range
+	 * are not counted.
+	 */
+	public long[] histogram(double[] a, double[] b, double[] c, double low, double high, int bins) {
+
+		check(a, b, c);
+		checkRange(low, high);
+		if (bins < 1)
+			throw new IllegalArgumentException("Number of bins must be positive");
+		double scale = bins / (high - low);
+		return pool.invoke(new Scan<>(a.length, (from, to) -> {
+			long[] histogram = new long[bins];
+			QuadraticRoots roots = new QuadraticRoots();
+			for (int i = from; i < to; i++) {
+				if (solve(a[i], b[i], c[i], roots) != Quadratic.STATUS_OK || roots.isComplex()) continue;
+				double root = Math.max(roots.getReal1(), roots.getReal2());
+				if (root >= low && root < high) histogram[Math.min((int) ((root - low)*scale), bins - 1)]++;
+			}
+			return histogram;
+		}, (left, right) -> {
+			for (int i = 0; i < bins; i++) left[i] += right[i];
+			return left;
+		}));
+
+	}
+
+	/*
+	 * Solves one equation of a scan, counting it in the solver metrics.
+	 */
+	private int solve(double a, double b, double c, QuadraticRoots roots) {
+
+		int status = solver.solveInto(a, b, c, roots);
+		if (SolverMetrics.ENABLED) SolverMetrics.recordBatch(status);
+		return status;
+
+	}
+
+	private boolean hasRootIn(double a, double b, double c, double low, double high, QuadraticRoots roots) {
+
+		if (solve(a, b, c, roots) != Quadratic.STATUS_OK || roots.isComplex()) return false;
+		double x1 = roots.getReal1(), x2 = roots.getReal2();
+		return (x1 >= low && x1 <= high) || (x2 >= low && x2 <= high);
+
+	}
+
+	private static void check(double[] a, double[] b, double[] c) {
+
+		if (a.length != b.length || a.length != c.length)
+			throw new IllegalArgumentException("Coefficient arrays must have the same length");
+
+	}
+
+	private static void checkRange(double low, double high) {
+
+		if (!(low <= high) || Double.isInfinite(high - low))
+			throw new IllegalArgumentException("Range must be finite with low <= high");
+
+	}
+
+	/**
+	 * Computes the partial answer for a range of rows.
+	 */
+	private interface Leaf<R> {
+		R compute(int from, int to);
+	}
+
+	/*
+	 * Reduces a range of the columns, splitting it on multiples of 64 while it is larger than the threshold.
+	 */
+	private final class Scan<R> extends RecursiveTask<R> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Leaf<R> leaf;
+		private final BinaryOperator<R> merge;
+		private final int from, to;
+
+		Scan(int length, Leaf<R> leaf, BinaryOperator<R> merge) {
+			this(leaf, merge, 0, length);
+		}
+
+		private Scan(Leaf<R> leaf, BinaryOperator<R> merge, int from, int to) {
+			this.leaf = leaf;
+			this.merge = merge;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected R compute() {
+
+			if (to - from <= threshold) return leaf.compute(from, to);
+
+			int middle = from + ((((to - from) >>> 1) + 63) & ~63);
+			Scan<R> left = new Scan<>(leaf, merge, from, middle);
+			left.fork();
+			R right = new Scan<>(leaf, merge, middle, to).compute();
+			return merge.apply(left.join(), right);
+
+		}
+
+	}
+
+	/**
+	 * Number of equations of each kind.
+	 */
+	public static final class Counts {
+
+		private long real, repeated, complex, failed;
+
+		Counts() {
+		}
+
+		/*
+		 * Counts an equation by the roots the solver found for it.
+		 */
+		void add(int status, QuadraticRoots roots) {
+			if (status != Quadratic.STATUS_OK) failed++;
+			else if (roots.isComplex()) complex++;
+			else if (roots.getCount() == 1) repeated++;
+			else real++;
+		}
+
+		Counts merge(Counts other) {
+			real += other.real;
+			repeated += other.repeated;
+			complex += other.complex;
+			failed += other.failed;
+			return this;
+		}
+
+		/*
+		 * Equations with two distinct real roots.
+		 */
+		public long getReal() {
+			return real;
+		}
+
+		public long getRepeated() {
+			return repeated;
+		}
+
+		public long getComplex() {
+			return complex;
+		}
+
+		public long getFailed() {
+			return failed;
+		}
+
+		public long getTotal() {
+			return real + repeated + complex + failed;
+		}
+
+	}
+
+	/**
+	 * Running count, minimum, maximum and sum of a set of roots.
+	 */
+	public static final class Statistics {
+
+		private long count;
+		private double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum;
+
+		Statistics() {
+		}
+
+		void add(double value) {
+			count++;
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+			sum += value;
+		}
+
+		Statistics merge(Statistics other) {
+			count += other.count;
+			min = Math.min(min, other.min);
+			max = Math.max(max, other.max);
+			sum += other.sum;
+			return this;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		/*
+		 * Returns the smallest value, or NaN if there were none. The same holds for getMax and getMean.
+		 */
+		public double getMin() {
+			return (count == 0) ? Double.NaN : min;
+		}
+
+		public double getMax() {
+			return (count == 0) ? Double.NaN : max;
+		}
+
+		public double getMean() {
+			return (count == 0) ? Double.NaN : sum / count;
+		}
+
+	}
+
+}
@@ -0,0 +1,261 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in runtime metrics of the Quadratic Equation Solver, published through JMX.
+ * Instrumentation is switched on by starting the JVM with -Dquadratic.metrics=true. The switch is a static final constant, so when it is
+ * off the JIT removes every hook along with its timer calls and the hot paths run as if it were not there. When it is on, counts are
+ * kept in LongAdders, which stripe contended updates across cells, and latencies go into a log-linear histogram with eight sub-buckets
+ * per power of two, whose buckets are LongAdders too. Nothing is allocated per recorded event.
+ */
+public final class SolverMetrics implements SolverMetricsMBean {
+
+	public static final String PROPERTY = "quadratic.metrics";
+	public static final String OBJECT_NAME = "Quadratic:type=SolverMetrics";
+
+	// read once; the hooks test this constant so a disabled build folds them away
+	static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS; // enough for every non-negative long
+
+	private static final SolverMetrics INSTANCE = new SolverMetrics();
+
+	private final LongAdder solves = new LongAdder();
+	private final LongAdder[] failures = newAdders(Quadratic.STATUS_CANCELLATION + 1); // indexed by status code
+	private final LongAdder exceptions = new LongAdder();
+	private final LongAdder newtonCalls = new LongAdder();
+	private final LongAdder newtonIterations = new LongAdder();
+	private final LongAdder[] latencies = newAdders(BUCKETS);
+	private final LongAdder latencyTotal = new LongAdder();
+	private final LongAccumulator latencyMax = new LongAccumulator(Math::max, 0);
+	private volatile long started = System.nanoTime();
+
+	static {
+		if (ENABLED) {
+			try {
+				register(ManagementFactory.getPlatformMBeanServer());
+			} catch (JMException e) {
+				// metrics are still recorded, they just cannot be browsed
+				System.err.println("Failed to register solver metrics: " + e.getMessage());
+			}
+		}
+	}
+
+	private SolverMetrics() {
+	}
+
+	/*
+	 * Returns the metrics shared by every solver in the JVM.
+	 */
+	public static SolverMetrics get() {
+		return INSTANCE;
+	}
+
+	/*
+	 * Publishes the metrics on an MBean server under OBJECT_NAME. Done automatically on the platform server when metrics are enabled.
+	 */
+	static void register(MBeanServer server) throws JMException {
+		server.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+	}
+
+	private static LongAdder[] newAdders(int size) {
+		LongAdder[] adders = new LongAdder[size];
+		for (int i = 0; i < size; i++) adders[i] = new LongAdder();
+		return adders;
+	}
+
+	/*
+	 * Records a single-equation solve and how long it took.
+	 */
+	static void recordSolve(int status, long nanos) {
+		INSTANCE.count(status);
+		INSTANCE.latencies[bucket(nanos)].increment();
+		INSTANCE.latencyTotal.add(nanos);
+		INSTANCE.latencyMax.accumulate(nanos);
+	}
+
+	/*
+	 * Records the equations of a batch by status, without timing them.
+	 */
+	static void recordBatch(int[] status, int from, int to) {
+		for (int i = from; i < to; i++) INSTANCE.count(status[i]);
+	}
+
+	static void recordBatch(int status) {
+		INSTANCE.count(status);
+	}
+
+	static void recordException() {
+		INSTANCE.exceptions.increment();
+	}
+
+	static void recordNewton(int iterations) {
+		INSTANCE.newtonCalls.increment();
+		INSTANCE.newtonIterations.add(iterations);
+	}
+
+	private void count(int status) {
+		solves.increment();
+		if (status != Quadratic.STATUS_OK) failures[status].increment();
+	}
+
+	/*
+	 * Maps a latency to its bucket: values below eight get a bucket each, larger ones share a bucket with the values that agree in their
+	 * leading four bits.
+	 */
+	static int bucket(long nanos) {
+
+		if (nanos < SUB_BUCKETS) return (int) Math.max(nanos, 0);
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1)*SUB_BUCKETS + sub;
+
+	}
+
+	/*
+	 * Returns the largest latency that falls into a bucket.
+	 */
+	static long bucketLimit(int bucket) {
+
+		if (bucket < SUB_BUCKETS) return bucket;
+		int shift = bucket/SUB_BUCKETS - 1;
+		long limit = ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << shift) - 1;
+		return (limit < 0) ? Long.MAX_VALUE : limit;
+
+	}
+
+	/*
+	 * Returns the latency that the given fraction of single-equation solves did not exceed, or zero if none were recorded.
+	 */
+	public long getLatencyPercentile(double fraction) {
+
+		if (!(fraction >= 0 && fraction <= 1))
+			throw new IllegalArgumentException("Fraction must be between 0 and 1");
+
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) total += counts[i] = latencies[i].sum();
+		if (total == 0) return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(fraction*total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) return Math.min(bucketLimit(i), latencyMax.get());
+		}
+		return latencyMax.get();
+
+	}
+
+	@Override
+	public long getSolveCount() {
+		return solves.sum();
+	}
+
+	@Override
+	public double getSolvesPerSecond() {
+		double seconds = (System.nanoTime() - started) / 1e9;
+		return (seconds > 0) ? solves.sum() / seconds : 0;
+	}
+
+	@Override
+	public long getFailureCount() {
+		long total = 0;
+		for (LongAdder failure : failures) total += failure.sum();
+		return total;
+	}
+
+	@Override
+	public long getNotEnoughPrecisionCount() {
+		return failures[Quadratic.STATUS_NOT_ENOUGH_PRECISION].sum();
+	}
+
+	@Override
+	public long getNanInputCount() {
+		return failures[Quadratic.STATUS_NAN_INPUT].sum();
+	}
+
+	@Override
+	public long getOverflowCount() {
+		return failures[Quadratic.STATUS_OVERFLOW].sum();
+	}
+
+	@Override
+	public long getUnderflowCount() {
+		return failures[Quadratic.STATUS_UNDERFLOW].sum();
+	}
+
+	@Override
+	public long getCancellationCount() {
+		return failures[Quadratic.STATUS_CANCELLATION].sum();
+	}
+
+	@Override
+	public long getExceptionCount() {
+		return exceptions.sum();
+	}
+
+	@Override
+	public long getNewtonCalls() {
+		return newtonCalls.sum();
+	}
+
+	@Override
+	public double getMeanNewtonIterations() {
+		long calls = newtonCalls.sum();
+		return (calls == 0) ? 0 : (double) newtonIterations.sum() / calls;
+	}
+
+	@Override
+	public double getMeanLatencyNanos() {
+		long count = 0;
+		for (LongAdder latency : latencies) count += latency.sum();
+		return (count == 0) ? 0 : (double) latencyTotal.sum() / count;
+	}
+
+	@Override
+	public long getLatencyP50Nanos() {
+		return getLatencyPercentile(0.5);
+	}
+
+	@Override
+	public long getLatencyP90Nanos() {
+		return getLatencyPercentile(0.9);
+	}
+
+	@Override
+	public long getLatencyP99Nanos() {
+		return getLatencyPercentile(0.99);
+	}
+
+	@Override
+	public long getLatencyP999Nanos() {
+		return getLatencyPercentile(0.999);
+	}
+
+	@Override
+	public long getMaxLatencyNanos() {
+		return latencyMax.get();
+	}
+
+	@Override
+	public void reset() {
+		solves.reset();
+		for (LongAdder failure : failures) failure.reset();
+		exceptions.reset();
+		newtonCalls.reset();
+		newtonIterations.reset();
+		for (LongAdder latency : latencies) latency.reset();
+		latencyTotal.reset();
+		latencyMax.reset();
+		started = System.nanoTime();
+	}
+
+}
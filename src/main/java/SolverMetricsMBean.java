@@ -0,0 +1,59 @@
+/**
+ * Management interface of SolverMetrics, published through JMX as Quadratic:type=SolverMetrics.
+ * Counts are totals since the JVM started or reset was last invoked. Latencies are in nanoseconds, measured around single-equation
+ * solves, and are accurate to within one eighth of their value.
+ */
+public interface SolverMetricsMBean {
+
+	/*
+	 * Equations solved, one at a time or in batches, including those that failed.
+	 */
+	long getSolveCount();
+
+	double getSolvesPerSecond();
+
+	long getFailureCount();
+
+	/*
+	 * Failures by status code. See Quadratic.STATUS_NOT_ENOUGH_PRECISION and the codes after it.
+	 */
+	long getNotEnoughPrecisionCount();
+
+	long getNanInputCount();
+
+	long getOverflowCount();
+
+	long getUnderflowCount();
+
+	long getCancellationCount();
+
+	/*
+	 * NotEnoughPrecisionExceptions handed out to be thrown, by the solver or by input validation.
+	 */
+	long getExceptionCount();
+
+	/*
+	 * Calls of the Newton square roots, Quadratic.sqrtByNewton and sqrtBySeededNewton, and the mean number of Newton steps they took.
+	 */
+	long getNewtonCalls();
+
+	double getMeanNewtonIterations();
+
+	double getMeanLatencyNanos();
+
+	long getLatencyP50Nanos();
+
+	long getLatencyP90Nanos();
+
+	long getLatencyP99Nanos();
+
+	long getLatencyP999Nanos();
+
+	long getMaxLatencyNanos();
+
+	/*
+	 * Clears every count and the latency histogram.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,17 @@
+/**
+ * Square root algorithm used by a QuadraticSolver.
+ * NEWTON is the original fixed-error Newton loop, SEEDED_NEWTON starts Newton's Method from an estimate taken from the
+ * exponent bits and stops at full relative precision, and INTRINSIC uses the JVM's Math.sqrt.
+ */
+public interface SqrtStrategy {
+
+	SqrtStrategy NEWTON = Quadratic::sqrtByNewton;
+	SqrtStrategy SEEDED_NEWTON = Quadratic::sqrtBySeededNewton;
+	SqrtStrategy INTRINSIC = Math::sqrt;
+
+	/*
+	 * Computes the square root of a non-negative value.
+	 */
+	double sqrt(double value);
+
+}
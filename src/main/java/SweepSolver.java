@@ -0,0 +1,96 @@
+/**
+ * A Quadratic Equation Solver for parameter sweeps, where each equation differs only slightly from the one before.
+ * Each equation is solved by a QuadraticSolver using SqrtStrategy.SEEDED_NEWTON, except that Newton's Method for the square root of the
+ * discriminant starts from the previous square root, extrapolated to second order in the change of the discriminant, instead of from
+ * the exponent seed, so a small step converges in one or two iterations. When the magnitude of the discriminant jumps by more than a
+ * set fraction or the previous equation failed, the exponent seed is used instead. Either way the square root is correctly rounded, so
+ * the roots are the same as those of the plain solver. Instances carry state between calls and are not thread-safe.
+ */
+public final class SweepSolver {
+
+	public static final double DEFAULT_MAX_JUMP = 0.25;
+
+	private final QuadraticSolver solver = new QuadraticSolver(SqrtStrategy.SEEDED_NEWTON);
+	private final SqrtStrategy warmSqrt = this::sqrt;
+	private final double maxJump;
+	private double previousDiscriminant = Double.NaN; // magnitude of the last discriminant, NaN when there is no warm start
+	private double previousRoot;
+
+	public SweepSolver() {
+		this(DEFAULT_MAX_JUMP);
+	}
+
+	/*
+	 * Creates a sweep solver that warm-starts when the magnitude of the discriminant changes by at most maxJump of its previous value.
+	 */
+	public SweepSolver(double maxJump) {
+		if (!(maxJump > 0 && maxJump < 1))
+			throw new IllegalArgumentException("Maximum jump must be between 0 and 1");
+		this.maxJump = maxJump;
+	}
+
+	/*
+	 * Forgets the previous equation, so the next one is solved cold.
+	 */
+	public void reset() {
+		previousDiscriminant = Double.NaN;
+	}
+
+	/*
+	 * Solves the next equation of the sweep into a reusable holder and returns its status code.
+	 */
+	public int solve(double a, double b, double c, QuadraticRoots roots) {
+
+		if (!SolverMetrics.ENABLED) return solveNext(a, b, c, roots);
+
+		long start = System.nanoTime();
+		int status = solveNext(a, b, c, roots);
+		SolverMetrics.recordSolve(status, System.nanoTime() - start);
+		return status;
+
+	}
+
+	/*
+	 * Solves a sweep given as coefficient columns, in order. See Quadratic.solveQuadratic for the layout of the output arrays.
+	 */
+	public void solve(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status) {
+
+		QuadraticSolver.checkBatch(a, b, c, real, imaginary, count, status);
+		QuadraticRoots roots = new QuadraticRoots(); // reused for every step
+		for (int i = 0; i < a.length; i++) {
+			status[i] = solveNext(a[i], b[i], c[i], roots);
+			roots.copyTo(real, imaginary, count, i);
+		}
+		if (SolverMetrics.ENABLED) SolverMetrics.recordBatch(status, 0, a.length);
+
+	}
+
+	private int solveNext(double a, double b, double c, QuadraticRoots roots) {
+
+		int status = solver.solveUnscaled(a, b, c, roots, warmSqrt);
+		if (status != Quadratic.STATUS_OK) reset();
+		return status;
+
+	}
+
+	/*
+	 * Computes the square root of the magnitude of the discriminant, starting from the previous root if the previous magnitude was
+	 * similar.
+	 */
+	private double sqrt(double value) {
+
+		double previous = previousDiscriminant;
+		previousDiscriminant = value;
+
+		double seed = Double.NaN;
+		if (Math.abs(value - previous) <= maxJump*previous) {
+			// second order Taylor step from the previous root
+			double t = (value - previous) / previous;
+			seed = previousRoot * (1 + t*(0.5 - 0.125*t));
+		}
+		previousRoot = Quadratic.sqrtBySeededNewton(value, seed);
+		return previousRoot;
+
+	}
+
+}
@@ -0,0 +1,189 @@
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * A Quadratic Equation Solver that escalates precision instead of giving up.
+ * The discriminant is first computed in plain doubles, and the rounding error of b*b and 4*a*c is recovered exactly with fused
+ * multiply-add. Only when that error is too large a fraction of the discriminant is it recomputed in double-double arithmetic. When the
+ * products overflow or underflow the coefficients are rescaled by powers of two first, and only if that fails too is the discriminant
+ * computed exactly with BigDecimal. The roots report which tier produced them.
+ * Equations whose roots lie outside the double range, or with a zero or non-finite coefficient, still fail.
+ */
+public class TieredQuadraticSolver extends QuadraticSolver {
+
+	// b*b and 4*a*c each round by up to half an ulp of max(b^2, |4ac|), which swamps the discriminant when they nearly cancel. The plain
+	// discriminant is trusted only when that recovered error is within two ulps of it, so the square root, which halves relative error,
+	// leaves the roots within about an ulp
+	private static final double ERROR_BOUND = 0x1p-51;
+
+	// products at least this large have rounding errors that are normal doubles, so fma recovers them exactly
+	private static final double MIN_EXACT_PRODUCT = 0x1p-969;
+
+	private static final MathContext CONTEXT = new MathContext(40); // enough digits to round correctly to double
+	private static final BigDecimal MINUS_HALF = BigDecimal.valueOf(-0.5);
+	private static final BigDecimal TWO = BigDecimal.valueOf(2);
+	private static final BigDecimal FOUR = BigDecimal.valueOf(4);
+
+	/*
+	 * Creates a solver that uses the fast converging seeded Newton square root.
+	 */
+	public TieredQuadraticSolver() {
+		this(SqrtStrategy.SEEDED_NEWTON);
+	}
+
+	public TieredQuadraticSolver(SqrtStrategy sqrt) {
+		super(sqrt);
+	}
+
+	/*
+	 * Every equation needs its own error bound, so batches are never handed to the lane-parallel kernel.
+	 */
+	@Override
+	void solveRange(double[] a, double[] b, double[] c, double[] real, double[] imaginary, int[] count, int[] status, int from, int to) {
+
+		solveEach(a, b, c, real, imaginary, count, status, from, to);
+
+	}
+
+	/*
+	 * The double-double discriminant can have a different sign than the plain one.
+	 */
+	@Override
+	boolean classifiesBySign() {
+		return false;
+	}
+
+	/*
+	 * Tries the double tiers on the coefficients as given, then on coefficients scaled by powers of two, and computes the discriminant
+	 * exactly only if both fail.
+	 */
+	@Override
+	int solveInto(double a, double b, double c, QuadraticRoots roots) {
+
+		// not a quadratic equation, or nothing to compute with
+		if (a == 0 || !Double.isFinite(a) || !Double.isFinite(b) || !Double.isFinite(c)) {
+			roots.clear();
+			return failureStatus(a, b, c);
+		}
+
+		if (solveUnscaled(a, b, c, roots) == Quadratic.STATUS_OK || solveScaled(a, b, c, roots) == Quadratic.STATUS_OK)
+			return Quadratic.STATUS_OK;
+		return solveExactly(a, b, c, roots);
+
+	}
+
+	/*
+	 * Solves the equation in double or double-double arithmetic. Fails if the products overflow or underflow or the roots do not fit.
+	 */
+	@Override
+	int solveUnscaled(double a, double b, double c, QuadraticRoots roots) {
+
+		double bb = b*b;
+		double ac4 = 4*a*c;
+		double discriminant = bb - ac4;
+
+		if (Double.isFinite(discriminant) && (bb >= MIN_EXACT_PRODUCT || b == 0) && (Math.abs(ac4) >= MIN_EXACT_PRODUCT || c == 0)) {
+			// exact rounding errors of both products
+			double error = Math.fma(b, b, -bb) - Math.fma(4*a, c, -ac4);
+
+			if (Math.abs(error) <= ERROR_BOUND*Math.abs(discriminant)) {
+				if (finish(a, b, c, discriminant, 0, roots)) {
+					roots.setPrecisionTier(PrecisionTier.DOUBLE);
+					return Quadratic.STATUS_OK;
+				}
+			} else {
+				// Kahan's discriminant: add the exact subtraction error and the product errors as a double-double
+				double v = discriminant - bb;
+				double low = (bb - (discriminant - v)) - (ac4 + v) + error;
+				double high = discriminant + low;
+				low -= high - discriminant;
+				if (finish(a, b, c, high, low, roots)) {
+					roots.setPrecisionTier(PrecisionTier.DOUBLE_DOUBLE);
+					return Quadratic.STATUS_OK;
+				}
+			}
+		}
+
+		roots.clear();
+		return Quadratic.STATUS_NOT_ENOUGH_PRECISION;
+
+	}
+
+	/*
+	 * Computes the roots from the discriminant high + low. Returns false if the roots cannot be represented, so the caller escalates.
+	 */
+	private boolean finish(double a, double b, double c, double high, double low, QuadraticRoots roots) {
+
+		if (high < 0) { // complex roots
+			double root = sqrt(-high, -low);
+			double real = (-1*b)/(2*a);
+			double imaginary = root/(2*a);
+			if (!Double.isFinite(real) || !Double.isFinite(imaginary)) return false;
+			roots.setComplex(real, imaginary);
+		} else { // real roots
+			double root = sqrt(high, low);
+			// mixed approach to avoid subtractive cancellation
+			double q = (-0.5) * (b + Quadratic.sign(b)*root);
+			if (q == 0) return false; // c/q is undefined
+			double x1 = q/a;
+			double x2 = c/q;
+			if (!Double.isFinite(x1) || !Double.isFinite(x2)) return false;
+			roots.setReal(x1, x2);
+		}
+		return true;
+
+	}
+
+	/*
+	 * Computes the square root of high + low, refining the root of high with one correction step when low is not zero.
+	 */
+	private double sqrt(double high, double low) {
+
+		double root = getSqrtStrategy().sqrt(high);
+		if (low == 0 || root == 0) return root;
+		return root + (Math.fma(-root, root, high) + low) / (2*root);
+
+	}
+
+	/*
+	 * Computes the discriminant exactly and the roots to 40 significant digits, then rounds them to doubles.
+	 */
+	private static int solveExactly(double a, double b, double c, QuadraticRoots roots) {
+
+		BigDecimal bigA = new BigDecimal(a);
+		BigDecimal bigB = new BigDecimal(b);
+		BigDecimal bigC = new BigDecimal(c);
+		BigDecimal discriminant = bigB.multiply(bigB).subtract(FOUR.multiply(bigA).multiply(bigC));
+		BigDecimal root = discriminant.abs().sqrt(CONTEXT);
+
+		if (discriminant.signum() < 0) { // complex roots
+			BigDecimal twoA = TWO.multiply(bigA);
+			double real = bigB.negate().divide(twoA, CONTEXT).doubleValue();
+			double imaginary = root.divide(twoA, CONTEXT).doubleValue();
+			if (Double.isInfinite(real) || Double.isInfinite(imaginary)) {
+				roots.clear();
+				return Quadratic.STATUS_OVERFLOW;
+			}
+			roots.setComplex(real, imaginary);
+		} else { // real roots
+			BigDecimal q = MINUS_HALF.multiply(b > 0 ? bigB.add(root) : bigB.subtract(root));
+			if (q.signum() == 0) {
+				// b and the discriminant are zero, so c is too
+				roots.setReal(0, 0);
+			} else {
+				double x1 = q.divide(bigA, CONTEXT).doubleValue();
+				double x2 = bigC.divide(q, CONTEXT).doubleValue();
+				if (Double.isInfinite(x1) || Double.isInfinite(x2)) {
+					roots.clear();
+					return Quadratic.STATUS_OVERFLOW;
+				}
+				roots.setReal(x1, x2);
+			}
+		}
+
+		roots.setPrecisionTier(PrecisionTier.BIG_DECIMAL);
+		return Quadratic.STATUS_OK;
+
+	}
+
+}
@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+/**
+ * Metamorphic Testing for solving batches held in off-heap byte buffers
+ */
+public class BufferColumnMetamorphicTest {
+
+    private static final int SIZE = 1000;
+
+    private final double[] a = new double[SIZE], b = new double[SIZE], c = new double[SIZE];
+    private final double[] real = new double[2 * SIZE], imaginary = new double[2 * SIZE];
+    private final int[] count = new int[SIZE], status = new int[SIZE];
+    private final QuadraticSolver solver = new QuadraticSolver();
+
+    BufferColumnMetamorphicTest() {
+        Random random = new Random(19);
+        for (int i = 0; i < SIZE; i++) {
+            a[i] = random.nextGaussian();
+            b[i] = random.nextGaussian();
+            c[i] = random.nextGaussian();
+            if (i % 50 == 0) a[i] = 0; // failures are reported in the status column
+        }
+        solver.solve(a, b, c, real, imaginary, count, status);
+    }
+
+    /**
+     * Metamorphic Relation: interleaved records in native order after a header give the same roots as the array batch
+     */
+    @Test
+    public void testInterleavedRecords() {
+        int header = 64;
+        ByteBuffer input = ByteBuffer.allocateDirect(header + 24 * SIZE).order(ByteOrder.nativeOrder());
+        ByteBuffer output = ByteBuffer.allocateDirect(header + 40 * SIZE).order(ByteOrder.nativeOrder());
+        for (int i = 0; i < SIZE; i++) {
+            input.putDouble(header + 24 * i, a[i]).putDouble(header + 24 * i + 8, b[i]).putDouble(header + 24 * i + 16, c[i]);
+        }
+
+        solver.solve(new BufferColumn(input, header, 24), new BufferColumn(input, header + 8, 24), new BufferColumn(input, header + 16, 24),
+            new BufferColumn(output, header, 40), new BufferColumn(output, header + 16, 40), new BufferColumn(output, header + 32, 40),
+            new BufferColumn(output, header + 36, 40), SIZE);
+
+        for (int i = 0; i < SIZE; i++) {
+            int record = header + 40 * i;
+            assertEquals(real[2 * i], output.getDouble(record));
+            assertEquals(real[2 * i + 1], output.getDouble(record + 8));
+            assertEquals(imaginary[2 * i], output.getDouble(record + 16));
+            assertEquals(imaginary[2 * i + 1], output.getDouble(record + 24));
+            assertEquals(count[i], output.getInt(record + 32));
+            assertEquals(status[i], output.getInt(record + 36));
+        }
+    }
+
+    /**
+     * Metamorphic Relation: separate big-endian columns in one buffer give the same roots as the array batch
+     */
+    @Test
+    public void testColumns() {
+        ByteBuffer input = ByteBuffer.allocateDirect(24 * SIZE);
+        ByteBuffer output = ByteBuffer.allocateDirect(40 * SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            input.putDouble(8 * i, a[i]).putDouble(8 * SIZE + 8 * i, b[i]).putDouble(16 * SIZE + 8 * i, c[i]);
+        }
+
+        solver.solve(new BufferColumn(input, 0, 8), new BufferColumn(input, 8 * SIZE, 8), new BufferColumn(input, 16 * SIZE, 8),
+            new BufferColumn(output, 0, 16), new BufferColumn(output, 16 * SIZE, 16), new BufferColumn(output, 32 * SIZE, 4),
+            new BufferColumn(output, 36 * SIZE, 4), SIZE);
+
+        double[] actualReal = new double[2 * SIZE], actualImaginary = new double[2 * SIZE];
+        int[] actualCount = new int[SIZE], actualStatus = new int[SIZE];
+        output.asDoubleBuffer().get(actualReal);
+        output.position(16 * SIZE);
+        output.asDoubleBuffer().get(actualImaginary);
+        output.position(32 * SIZE);
+        output.asIntBuffer().get(actualCount).get(actualStatus);
+        assertArrayEquals(real, actualReal);
+        assertArrayEquals(imaginary, actualImaginary);
+        assertArrayEquals(count, actualCount);
+        assertArrayEquals(status, actualStatus);
+    }
+
+    /**
+     * Columns that do not fit are rejected before anything is written
+     */
+    @Test
+    public void testBounds() {
+        ByteBuffer input = ByteBuffer.allocateDirect(24 * 10);
+        ByteBuffer output = ByteBuffer.allocateDirect(40 * 10);
+        BufferColumn column = new BufferColumn(input, 0, 24);
+        BufferColumn shifted = new BufferColumn(input, 8, 24);
+        BufferColumn outputColumn = new BufferColumn(output, 0, 40);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> solver.solve(column, shifted, shifted, outputColumn, outputColumn, outputColumn, outputColumn, 11));
+        assertThrows(IllegalArgumentException.class,
+            () -> solver.solve(column, column, new BufferColumn(input, 236, 24), outputColumn, outputColumn, outputColumn, outputColumn, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BufferColumn(input, -1, 8));
+        assertThrows(IllegalArgumentException.class, () -> new BufferColumn(input, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BufferColumn(null, 0, 8));
+        assertEquals(8, shifted.getOffset());
+        assertEquals(24, shifted.getStride());
+        assertSame(input, shifted.getBuffer());
+    }
+
+}
@@ -0,0 +1,160 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Metamorphic Testing for the caching Quadratic Equation Solver
+ */
+public class CachingQuadraticSolverMetamorphicTest {
+
+    /**
+     * Metamorphic Relation: scalar multiples of an equation hit the same cache entry and get identical roots
+     */
+    @Test
+    public void testScaledEquationsShareEntry() throws NotEnoughPrecisionException {
+        CachingQuadraticSolver cache = new CachingQuadraticSolver();
+
+        QuadraticRoots source = cache.solve(1, -3, 2);
+        assertEquals(2.0, source.getReal1(), 1e-12);
+        assertEquals(1.0, source.getReal2(), 1e-12);
+        assertEquals(1, cache.getMisses());
+
+        for (double k : new double[] {2, -4, 0.5, 1024}) {
+            QuadraticRoots scaled = cache.solve(k*1, k*-3, k*2);
+            assertEquals(source.toString(), scaled.toString());
+        }
+        assertEquals(4, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // complex roots come back from the cache unchanged, failures are solved again every time
+        assertEquals("x1 = 2i\nx2 = -2i", cache.solve(1, 0, 4).toString());
+        assertEquals("x1 = 2i\nx2 = -2i", cache.solve(3, 0, 12).toString());
+        assertThrows(NotEnoughPrecisionException.class, () -> cache.solve(1, 1e10, 1));
+        assertThrows(NotEnoughPrecisionException.class, () -> cache.solve(2, 2e10, 2));
+        assertEquals(5, cache.getHits());
+        assertEquals(4, cache.getMisses());
+    }
+
+    /**
+     * Metamorphic Relation: on edge inputs the cache gives what the plain solver gives, bit for bit, the first time an equation is seen
+     * and every time it is repeated
+     */
+    @Test
+    public void testTransparentOnEdgeInputs() {
+        double[][] equations = {
+            {1, -3, 2}, {0.1, 0.3, 0.2}, {1, 0, 4}, {1, 2, 1}, {3, 1e-170, -1e-170}, {1, 1e10, 1}, {7, 3, 1e-300},
+            {1e200, 1e200, 1}, {1e-200, 1, 1e-200}, {1e-300, 1e-300, 1e-300}, {1e300, -3e300, 2.5e300}, {Double.MIN_VALUE, 1, 1},
+            {0, 1, 1}, {1, Double.NaN, 1}, {1, Double.POSITIVE_INFINITY, 1}, {-0.0, 0.0, -0.0}
+        }; // no two are multiples of each other
+        for (boolean scaling : new boolean[] {false, true}) {
+            QuadraticSolver plain = new QuadraticSolver(SqrtStrategy.SEEDED_NEWTON, scaling);
+            CachingQuadraticSolver cache = new CachingQuadraticSolver(SqrtStrategy.SEEDED_NEWTON, 64, scaling);
+            QuadraticRoots expected = new QuadraticRoots();
+            QuadraticRoots cached = new QuadraticRoots();
+            for (int pass = 0; pass < 2; pass++) {
+                for (double[] e : equations) {
+                    String equation = Arrays.toString(e) + (scaling ? " scaled" : "");
+                    assertEquals(plain.trySolve(e[0], e[1], e[2], expected), cache.trySolve(e[0], e[1], e[2], cached), equation);
+                    assertEquals(expected.isComplex(), cached.isComplex(), equation);
+                    assertEquals(expected.getCount(), cached.getCount(), equation);
+                    assertEquals(expected.getReal1(), cached.getReal1(), 0, equation);
+                    assertEquals(expected.getReal2(), cached.getReal2(), 0, equation);
+                    assertEquals(expected.getImaginary1(), cached.getImaginary1(), 0, equation);
+                }
+            }
+            assertTrue(cache.getHits() > 0);
+        }
+    }
+
+    /**
+     * Metamorphic Relation: a multiple that hits the cache gets the roots of the equation first seen, which are within a few ulps of
+     * solving the multiple directly, and succeeds where the multiple on its own overflows
+     */
+    @Test
+    public void testMultiplesCloseToPlainSolve() throws NotEnoughPrecisionException {
+        CachingQuadraticSolver cache = new CachingQuadraticSolver();
+        QuadraticSolver plain = new QuadraticSolver();
+        QuadraticRoots first = cache.solve(1, 3, 2);
+        QuadraticRoots multiple = cache.solve(0.3, 3 * 0.3, 2 * 0.3);
+        QuadraticRoots direct = plain.solve(0.3, 3 * 0.3, 2 * 0.3);
+        assertEquals(first.toString(), multiple.toString());
+        assertNotEquals(direct.getReal1(), multiple.getReal1());
+        assertEquals(direct.getReal1(), multiple.getReal1(), 4 * Math.ulp(direct.getReal1()));
+        assertEquals(direct.getReal2(), multiple.getReal2(), 4 * Math.ulp(direct.getReal2()));
+
+        assertEquals(Quadratic.STATUS_OVERFLOW, plain.trySolve(2e300, 6e300, 4e300, direct));
+        assertEquals(Quadratic.STATUS_OK, cache.trySolve(2e300, 6e300, 4e300, multiple));
+        assertEquals(first.toString(), multiple.toString());
+        assertEquals(2, cache.getHits());
+    }
+
+    /**
+     * Metamorphic Relation: the cache returns what the plain solver returns, to within the ulps a multiple can differ by, whatever it
+     * evicts
+     */
+    @Test
+    public void testMatchesPlainSolve() {
+        CachingQuadraticSolver cache = new CachingQuadraticSolver(SqrtStrategy.SEEDED_NEWTON, 64);
+        QuadraticSolver solver = new QuadraticSolver(SqrtStrategy.SEEDED_NEWTON);
+        Random random = new Random(12);
+        QuadraticRoots cached = new QuadraticRoots();
+        QuadraticRoots expected = new QuadraticRoots();
+
+        for (int i = 0; i < 20000; i++) {
+            double a = random.nextInt(9) + 1;
+            double b = random.nextInt(21) - 10;
+            double c = random.nextInt(21) - 10;
+            int status = solver.solveInto(a, b, c, expected);
+            assertEquals(status, cache.solveInto(a, b, c, cached));
+            if (status != Quadratic.STATUS_OK) continue;
+            assertEquals(expected.isComplex(), cached.isComplex());
+            assertEquals(expected.getReal1(), cached.getReal1(), 4 * Math.ulp(expected.getReal1()));
+            assertEquals(expected.getReal2(), cached.getReal2(), 4 * Math.ulp(expected.getReal2()));
+            assertEquals(expected.getImaginary1(), cached.getImaginary1(), 4 * Math.ulp(expected.getImaginary1()));
+        }
+
+        assertEquals(64, cache.getCapacity());
+        assertEquals(20000, cache.getHits() + cache.getMisses());
+        assertTrue(cache.getHits() > 0);
+        assertTrue(cache.getEvictions() > 0);
+        assertTrue(cache.getEvictions() <= cache.getMisses());
+    }
+
+    /**
+     * Metamorphic Relation: a batch through the cache equals the same equations solved one at a time
+     */
+    @Test
+    public void testBatchMatchesScalar() {
+        CachingQuadraticSolver cache = new CachingQuadraticSolver(SqrtStrategy.INTRINSIC, 16);
+        double[] a = {1, 2, 0, 1, 1};
+        double[] b = {-3, -6, 1, 1e10, 0};
+        double[] c = {2, 4, 1, 1, 4};
+        double[] real = new double[10], imaginary = new double[10];
+        int[] count = new int[5], status = new int[5];
+        cache.solve(a, b, c, real, imaginary, count, status);
+
+        assertArrayEquals(new int[] {0, 0, Quadratic.STATUS_NOT_ENOUGH_PRECISION, Quadratic.STATUS_CANCELLATION, 0}, status);
+        assertArrayEquals(new int[] {2, 2, 0, 0, 2}, count);
+        assertEquals(real[0], real[2]);
+        assertEquals(real[1], real[3]);
+        assertEquals(2.0, imaginary[8]);
+        assertEquals(1, cache.getHits()); // a == 0 bypasses the cache and failures are not stored
+
+        cache.clear();
+        cache.solve(a, b, c, real, imaginary, count, status);
+        assertEquals(2, cache.getHits());
+    }
+
+    /**
+     * Metamorphic Relation: invalid capacities are rejected and small capacities round up to whole sets
+     */
+    @Test
+    public void testCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new CachingQuadraticSolver(SqrtStrategy.NEWTON, 0));
+        assertEquals(CachingQuadraticSolver.WAYS, new CachingQuadraticSolver(SqrtStrategy.NEWTON, 1).getCapacity());
+        assertEquals(32, new CachingQuadraticSolver(SqrtStrategy.NEWTON, 17).getCapacity());
+    }
+
+}
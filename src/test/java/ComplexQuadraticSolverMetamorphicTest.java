@@ -0,0 +1,188 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+/**
+ * Metamorphic Testing for the complex-coefficient solver
+ */
+public class ComplexQuadraticSolverMetamorphicTest {
+
+    private final ComplexQuadraticSolver solver = new ComplexQuadraticSolver();
+
+    private static double modulus(double re, double im) {
+        return Math.hypot(re, im);
+    }
+
+    /**
+     * Residual |a x^2 + b x + c| relative to the size of its terms
+     */
+    private static double residual(double ar, double ai, double br, double bi, double cr, double ci, double xr, double xi) {
+        double x2r = xr * xr - xi * xi, x2i = 2 * xr * xi;
+        double tr = ar * x2r - ai * x2i + br * xr - bi * xi + cr;
+        double ti = ar * x2i + ai * x2r + br * xi + bi * xr + ci;
+        double scale = modulus(ar, ai) * modulus(xr, xi) * modulus(xr, xi) + modulus(br, bi) * modulus(xr, xi) + modulus(cr, ci);
+        return modulus(tr, ti) / scale;
+    }
+
+    /**
+     * Metamorphic Relation: both roots of random equations satisfy the equation and Vieta's formulas
+     */
+    @Test
+    public void testRandomEquations() {
+        Random random = new Random(23);
+        ComplexRoots roots = new ComplexRoots();
+        for (int k = 0; k < 10000; k++) {
+            double ar = random.nextGaussian(), ai = random.nextGaussian(), br = random.nextGaussian(), bi = random.nextGaussian();
+            double cr = random.nextGaussian(), ci = random.nextGaussian();
+            assertEquals(Quadratic.STATUS_OK, solver.solve(ar, ai, br, bi, cr, ci, roots));
+            assertEquals(2, roots.getCount());
+            assertTrue(residual(ar, ai, br, bi, cr, ci, roots.getReal1(), roots.getImaginary1()) < 1e-13);
+            assertTrue(residual(ar, ai, br, bi, cr, ci, roots.getReal2(), roots.getImaginary2()) < 1e-13);
+
+            // x1 + x2 = -b/a
+            double[] re = new double[1], im = new double[1];
+            ComplexQuadraticSolver.divide(-br, -bi, ar, ai, re, im, 0);
+            double sumR = roots.getReal1() + roots.getReal2(), sumI = roots.getImaginary1() + roots.getImaginary2();
+            assertEquals(re[0], sumR, 1e-12 * (1 + modulus(re[0], im[0])));
+            assertEquals(im[0], sumI, 1e-12 * (1 + modulus(re[0], im[0])));
+        }
+    }
+
+    /**
+     * Metamorphic Relation: real coefficients give the same roots as the real solver, in either order
+     */
+    @ParameterizedTest
+    @CsvSource({"1, -3, 2", "1, 0, 4", "2, -7, 3", "1, 2, 1", "3, 1, 5", "-1, 0.5, 2"})
+    public void testRealCoefficients(double a, double b, double c) throws NotEnoughPrecisionException {
+        QuadraticRoots expected = new QuadraticSolver().solve(a, b, c);
+        ComplexRoots roots = new ComplexRoots();
+        assertEquals(Quadratic.STATUS_OK, solver.solve(a, 0, b, 0, c, 0, roots));
+        assertEquals(expected.getCount(), roots.getCount());
+        boolean same = Math.abs(roots.getReal1() - expected.getReal1()) < 1e-12
+            && Math.abs(roots.getImaginary1() - expected.getImaginary1()) < 1e-12;
+        boolean swapped = Math.abs(roots.getReal1() - expected.getReal2()) < 1e-12
+            && Math.abs(roots.getImaginary1() - expected.getImaginary2()) < 1e-12;
+        assertTrue(same || swapped);
+    }
+
+    /**
+     * Metamorphic Relation: multiplying every coefficient by the same complex number leaves the roots unchanged
+     */
+    @ParameterizedTest
+    @CsvSource({"2, 0", "0, 1", "-3, 4", "1e100, -1e100", "1e-100, 3e-100"})
+    public void testCommonFactor(double kr, double ki) {
+        double ar = 1, ai = 2, br = -3, bi = 0.5, cr = 0.25, ci = -1;
+        ComplexRoots expected = new ComplexRoots(), roots = new ComplexRoots();
+        solver.solve(ar, ai, br, bi, cr, ci, expected);
+        solver.solve(ar * kr - ai * ki, ar * ki + ai * kr, br * kr - bi * ki, br * ki + bi * kr, cr * kr - ci * ki, cr * ki + ci * kr, roots);
+        assertEquals(expected.getReal1(), roots.getReal1(), 1e-14);
+        assertEquals(expected.getImaginary1(), roots.getImaginary1(), 1e-14);
+        assertEquals(expected.getReal2(), roots.getReal2(), 1e-14);
+        assertEquals(expected.getImaginary2(), roots.getImaginary2(), 1e-14);
+    }
+
+    /**
+     * Metamorphic Relation: the small root of an equation with widely separated roots keeps full relative precision
+     */
+    @Test
+    public void testNoCancellation() {
+        // (x - 1e8)(x - 1e-8 i) = x^2 - (1e8 + 1e-8 i) x + i
+        ComplexRoots roots = new ComplexRoots();
+        assertEquals(Quadratic.STATUS_OK, solver.solve(1, 0, -1e8, -1e-8, 0, 1, roots));
+        assertEquals(1e8, roots.getReal1(), 1e-6);
+        assertEquals(0, roots.getImaginary1(), 1e-20);
+        assertEquals(0, roots.getReal2(), 1e-30);
+        assertEquals(1e-8, roots.getImaginary2(), 1e-23);
+    }
+
+    /**
+     * Category: branch cuts, signed zeros and extreme magnitudes of the complex square root
+     */
+    @ParameterizedTest
+    @CsvSource({
+        "4, 0, 2, 0",
+        "-4, 0, 0, 2",
+        "-4, -0.0, 0, -2",
+        "0, 2, 1, 1",
+        "3, -4, 2, -1",
+        "-3, 4, 1, 2",
+        "0, 0, 0, 0",
+        "1.6e308, 1.6e308, 1.3897376910404626E154, 5.756481997700297E153",
+        "-1.6e308, 0, 0, 1.2649110640673517E154",
+        "4.9E-324, 0, 2.2227587494850775E-162, 0"
+    })
+    public void testSquareRoot(double x, double y, double re, double im) {
+        double[] real = new double[1], imaginary = new double[1];
+        solver.sqrt(x, y, real, imaginary, 0);
+        assertEquals(re, real[0], Math.ulp(re) * 4);
+        assertEquals(im, imaginary[0], Math.ulp(im) * 4);
+        assertEquals(Math.copySign(1, y), Math.copySign(1, imaginary[0]));
+    }
+
+    /**
+     * Metamorphic Relation: the batch solver gives the same results as solving one equation at a time
+     */
+    @Test
+    public void testBatchMatchesSingle() {
+        int n = 500;
+        Random random = new Random(24);
+        double[] ar = new double[n], ai = new double[n], br = new double[n], bi = new double[n], cr = new double[n], ci = new double[n];
+        for (int i = 0; i < n; i++) {
+            ar[i] = random.nextGaussian();
+            ai[i] = random.nextGaussian();
+            br[i] = random.nextGaussian();
+            bi[i] = random.nextGaussian();
+            cr[i] = random.nextGaussian();
+            ci[i] = random.nextGaussian();
+        }
+        ar[7] = ai[7] = 0;
+        ci[8] = Double.NaN;
+        br[9] = 1e300;
+        bi[9] = 1e300;
+
+        double[] real = new double[2 * n], imaginary = new double[2 * n];
+        int[] count = new int[n], status = new int[n];
+        solver.solve(ar, ai, br, bi, cr, ci, real, imaginary, count, status);
+
+        ComplexRoots roots = new ComplexRoots();
+        for (int i = 0; i < n; i++) {
+            assertEquals(solver.solve(ar[i], ai[i], br[i], bi[i], cr[i], ci[i], roots), status[i]);
+            assertEquals(roots.getCount(), count[i]);
+            assertEquals(roots.getReal1(), real[2 * i]);
+            assertEquals(roots.getImaginary1(), imaginary[2 * i]);
+            assertEquals(roots.getReal2(), real[2 * i + 1]);
+            assertEquals(roots.getImaginary2(), imaginary[2 * i + 1]);
+        }
+        assertEquals(Quadratic.STATUS_NOT_ENOUGH_PRECISION, status[7]);
+        assertEquals(Quadratic.STATUS_NAN_INPUT, status[8]);
+        assertEquals(Quadratic.STATUS_OVERFLOW, status[9]);
+        assertThrows(IllegalArgumentException.class,
+            () -> solver.solve(ar, ai, br, bi, cr, new double[1], real, imaginary, count, status));
+    }
+
+    /**
+     * Category: failures and rendering
+     */
+    @Test
+    public void testFailuresAndFormat() {
+        ComplexRoots roots = new ComplexRoots();
+        assertEquals(Quadratic.STATUS_CANCELLATION, solver.solve(1, 0, 1e10, 0, 1e-10, 0, roots));
+        assertEquals(0, roots.getCount());
+        assertEquals("no roots", roots.toString());
+        assertEquals(Quadratic.STATUS_UNDERFLOW, solver.solve(1e-200, 0, 0, 0, 1e-200, 0, roots));
+
+        assertEquals(Quadratic.STATUS_OK, solver.solve(1, 0, -3, 0, 2, 0, roots));
+        assertEquals("x1 = 2\nx2 = 1", roots.toString());
+        assertEquals(Quadratic.STATUS_OK, solver.solve(1, 0, 0, 0, 1, 0, roots));
+        assertEquals(2, roots.getCount());
+        assertEquals(Quadratic.STATUS_OK, solver.solve(1, 0, 0, 0, 0, 0, roots));
+        assertEquals(1, roots.getCount());
+        assertEquals(Quadratic.STATUS_OK, solver.solve(1, 0, -2, -2, 0, 2, roots));
+        assertEquals(1, roots.getCount());
+        assertEquals("x1 = 1 + i", roots.toString());
+    }
+
+}
@@ -0,0 +1,102 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Test class using Category-Partition Testing approach for the shortest double formatter
+ */
+public class DoubleFormatterCategoryPartitionTest {
+
+    static class TestCase {
+        double value;
+        String expected;
+        String category;
+
+        TestCase(double value, String expected, String category) {
+            this.value = value;
+            this.expected = expected;
+            this.category = category;
+        }
+    }
+
+    static Stream<TestCase> testCaseProvider() {
+        return Stream.of(
+            // Category: integral values in the long range
+            new TestCase(5, "5", "Small integer"),
+            new TestCase(-12, "-12", "Negative integer"),
+            new TestCase(0.0, "0", "Zero"),
+            new TestCase(-0.0, "0", "Negative zero"),
+            new TestCase(3e9, "3000000000", "Integer beyond the int range"),
+            new TestCase(-0x1p63, "-9223372036854775808", "Smallest long"),
+            new TestCase(0x1p62, "4611686018427387904", "Large power of two"),
+
+            // Category: plain notation between 10^-3 and 10^7
+            new TestCase(5.5, "5.5", "Simple fraction"),
+            new TestCase(0.1, "0.1", "Inexact fraction"),
+            new TestCase(0.30000000000000004, "0.30000000000000004", "Seventeen digits"),
+            new TestCase(0.001, "0.001", "Lower plain bound"),
+            new TestCase(9999999.5, "9999999.5", "Upper plain bound"),
+            new TestCase(-123.456, "-123.456", "Negative fraction"),
+
+            // Category: e-notation
+            new TestCase(0x1p63, "9.223372036854776E18", "Integer beyond the long range"),
+            new TestCase(1e23, "1.0E23", "Shortest digits where the JDK 17 toString is longer"),
+            new TestCase(9.99e-4, "9.99E-4", "Just below the plain range"),
+            new TestCase(2.5e-10, "2.5E-10", "Small value"),
+            new TestCase(Double.MAX_VALUE, "1.7976931348623157E308", "Largest value"),
+            new TestCase(Double.MIN_NORMAL, "2.2250738585072014E-308", "Smallest normal"),
+            new TestCase(Double.MIN_VALUE, "4.9E-324", "Smallest subnormal"),
+
+            // Category: special values
+            new TestCase(Double.NaN, "NaN", "Not a number"),
+            new TestCase(Double.POSITIVE_INFINITY, "Infinity", "Positive infinity"),
+            new TestCase(Double.NEGATIVE_INFINITY, "-Infinity", "Negative infinity")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("testCaseProvider")
+    public void testFormatCategories(TestCase testCase) {
+        char[] buffer = new char[DoubleFormatter.MAX_LENGTH + 2];
+        int length = DoubleFormatter.format(testCase.value, buffer, 2);
+        assertEquals(testCase.expected, new String(buffer, 2, length), testCase.category);
+        assertEquals(testCase.expected, Quadratic.formatDouble(testCase.value), testCase.category);
+    }
+
+    @Test
+    public void testAppendTargets() {
+        DoubleFormatter formatter = new DoubleFormatter();
+        StringBuilder builder = new StringBuilder("x = ");
+        formatter.append(-2.75, builder);
+        assertEquals("x = -2.75", builder.toString());
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        formatter.append(1e-7, buffer);
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertEquals("1.0E-7", new String(bytes, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Every formatted value parses back to the same double, and is never longer than Double.toString
+     */
+    @Test
+    public void testRoundTripOnRandomBits() {
+        Random random = new Random(9242112);
+        char[] buffer = new char[DoubleFormatter.MAX_LENGTH];
+        for (int k = 0; k < 200_000; k++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(value)) continue;
+            String formatted = new String(buffer, 0, DoubleFormatter.format(value, buffer, 0));
+            assertEquals(value, Double.parseDouble(formatted), "round trip of " + value);
+            assertTrue(formatted.length() <= Double.toString(value).length() + 1, "length of " + formatted);
+        }
+    }
+}
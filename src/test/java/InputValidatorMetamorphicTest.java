@@ -0,0 +1,93 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+/**
+ * Metamorphic Testing for the allocation-free coefficient validator
+ *
+ * The single-pass scan must accept and reject exactly the same inputs as formatting the parsed value and comparing strings.
+ */
+public class InputValidatorMetamorphicTest {
+
+    /**
+     * Outcome of a validation as a comparable string
+     */
+    private static String outcome(String input, boolean scan) {
+        try {
+            double value = scan ? InputValidator.validate(input) : InputValidator.validateByFormatting(input);
+            return "accepted " + Double.doubleToRawLongBits(value);
+        } catch (NotEnoughPrecisionException e) {
+            return "not enough precision";
+        } catch (NumberFormatException e) {
+            return "not a number";
+        }
+    }
+
+    /**
+     * Metamorphic Relation 1: Implementation Equivalence on categories of input
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "0", "-0", "0.0", "-0.0", "00", "0.00", "1", "-1", "1.0", "1.5", "1.50", "-2.75", "01", "+1", ".5", "5.",
+        "100", "100.0", "0.001", "0.0001", "1e2", "1E2", "1.0E-3", "1.0E-5", "1.0E6", "1.0E7", "1.0E10", "10000000",
+        "1.0E22", "1.0E23", "100000000000000000000000", "9007199254740993", "0.30000000000000004", "0.1000000000000000055511",
+        "123456789012345", "1234567890123456", "12345678901234567", "4.9E-324", "1.7976931348623157E308", "1e1000", "-1e1000",
+        "NaN", "-NaN", "Infinity", "-Infinity", "", "-", "abc", "1.0E", "1.0E-", "1.0E07", "1.0E1234", " 1", "1 ", "1d", "0x1p3"
+    })
+    public void testScanMatchesFormatting(String input) {
+        assertEquals(outcome(input, false), outcome(input, true), "validation of \"" + input + "\"");
+    }
+
+    /**
+     * Metamorphic Relation 2: Implementation Equivalence on generated decimals
+     */
+    @Test
+    public void testScanMatchesFormattingOnGeneratedInput() {
+        Random random = new Random(465);
+        for (int k = 0; k < 200_000; k++) {
+            String input;
+            if (k % 2 == 0) {
+                // printed doubles of every magnitude
+                input = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(60) - 30));
+            } else {
+                // hand typed decimals, some with too many digits
+                StringBuilder builder = new StringBuilder();
+                if (random.nextBoolean()) builder.append('-');
+                int integerDigits = 1 + random.nextInt(12);
+                for (int i = 0; i < integerDigits; i++) builder.append((char) ('0' + random.nextInt(10)));
+                if (random.nextBoolean()) {
+                    builder.append('.');
+                    int fractionDigits = 1 + random.nextInt(12);
+                    for (int i = 0; i < fractionDigits; i++) builder.append((char) ('0' + random.nextInt(10)));
+                }
+                input = builder.toString();
+            }
+            assertEquals(outcome(input, false), outcome(input, true), "validation of \"" + input + "\"");
+        }
+    }
+
+    /**
+     * Metamorphic Relation 3: a fraction longer than the plain format prints is too precise, unless the input is not a number at all
+     */
+    @Test
+    public void testLongFractions() {
+        String digits = "1".repeat(101);
+        for (String input : new String[] {"0." + digits, "-3." + digits, "0." + digits + "x", "0." + digits + " ", "0." + digits + "E5"}) {
+            assertEquals(outcome(input, false), outcome(input, true), "validation of \"" + input + "\"");
+        }
+        assertEquals("not enough precision", outcome("0." + digits, true));
+        assertEquals("not a number", outcome("0." + digits + "x", true));
+    }
+
+    @Test
+    public void testValidateInputAcceptsAnyCharSequence() throws NotEnoughPrecisionException {
+        StringBuilder buffer = new StringBuilder("-2.75");
+        assertEquals(-2.75, Quadratic.validateInput(buffer));
+        buffer.setLength(0);
+        buffer.append("1.50");
+        assertThrows(NotEnoughPrecisionException.class, () -> Quadratic.validateInput(buffer));
+    }
+}
@@ -0,0 +1,127 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Metamorphic Testing for the exact integer-coefficient Quadratic Equation Solver
+ */
+public class IntegerQuadraticSolverMetamorphicTest {
+
+    private static final long MAX = IntegerQuadraticSolver.MAX_COEFFICIENT;
+
+    /**
+     * One equation from each kind of discriminant renders exactly, with | separating the lines
+     */
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+        "1; -3; 2; x1 = 2 | x2 = 1",
+        "4; -4; -3; x1 = 3/2 | x2 = -1/2",
+        "1; 2; 1; x1 = -1",
+        "2; 0; 0; x1 = 0",
+        "1; 0; 4; x1 = 2i | x2 = -2i",
+        "4; 4; 5; x1 = -1/2 + i | x2 = -1/2 - i",
+        "1; 0; -2; x1 = 1.4142135623730951 | x2 = -1.414213562373095",
+        "2; 2; 1; x1 = -1/2 + 1/2i | x2 = -1/2 - 1/2i",
+        "1; 1; 1; x1 = -1/2 + 0.8660254037844386i | x2 = -1/2 - 0.8660254037844386i"
+    })
+    public void testRendering(long a, long b, long c, String expected) {
+        RationalRoots roots = new RationalRoots();
+        assertEquals(Quadratic.STATUS_OK, IntegerQuadraticSolver.solve(a, b, c, roots));
+        assertEquals(expected.replace(" | ", "\n"), roots.toString());
+    }
+
+    /**
+     * Metamorphic Relation: (q1*x - p1)(q2*x - p2) has the roots p1/q1 and p2/q2 in lowest terms, even when the floating-point
+     * solver fails
+     */
+    @Test
+    public void testProductOfFactors() {
+        Random random = new Random(16);
+        RationalRoots roots = new RationalRoots();
+        int rejectedByDouble = 0;
+
+        for (int i = 0; i < 20000; i++) {
+            int bits = 1 + random.nextInt(30);
+            long p1 = random.nextLong() >> (64 - bits), p2 = random.nextLong() >> (64 - bits);
+            long q1 = 1 + (random.nextLong() >>> (64 - bits)), q2 = 1 + (random.nextLong() >>> (64 - bits));
+            long a = q1*q2, b = -(q1*p2 + q2*p1), c = p1*p2;
+            if (a > MAX || Math.abs(b) > MAX || Math.abs(c) > MAX) continue;
+
+            assertEquals(Quadratic.STATUS_OK, IntegerQuadraticSolver.solve(a, b, c, roots));
+            assertTrue(roots.isExact());
+            assertFalse(roots.isComplex());
+            long g1 = BigInteger.valueOf(p1).gcd(BigInteger.valueOf(q1)).longValue();
+            long g2 = BigInteger.valueOf(p2).gcd(BigInteger.valueOf(q2)).longValue();
+            boolean first = roots.getNumerator1() == p1/g1 && roots.getDenominator1() == q1/g1
+                && (roots.getCount() == 1 || roots.getNumerator2() == p2/g2 && roots.getDenominator2() == q2/g2);
+            boolean swapped = roots.getNumerator1() == p2/g2 && roots.getDenominator1() == q2/g2
+                && (roots.getCount() == 1 || roots.getNumerator2() == p1/g1 && roots.getDenominator2() == q1/g1);
+            assertTrue(first || swapped, roots + " for " + p1 + "/" + q1 + ", " + p2 + "/" + q2);
+
+            if (new QuadraticSolver().trySolve(a, b, c, new QuadraticRoots()) != Quadratic.STATUS_OK) rejectedByDouble++;
+        }
+        assertTrue(rejectedByDouble > 0);
+    }
+
+    /**
+     * Metamorphic Relation: the integer square root r of n satisfies r^2 <= n < (r+1)^2 across the whole range
+     */
+    @Test
+    public void testIntegerSquareRoot() {
+        Random random = new Random(17);
+        for (int i = 0; i < 20000; i++) {
+            BigInteger n = new BigInteger(1 + random.nextInt(125), random);
+            if (i % 3 == 0) n = n.multiply(n).shiftRight(125).max(BigInteger.ONE).pow(2); // perfect squares
+            if (n.bitLength() > 125) continue;
+            long root = IntegerQuadraticSolver.sqrt(n.shiftRight(64).longValue(), n.longValue());
+            assertEquals(n.sqrt().longValueExact(), root, "sqrt of " + n);
+        }
+    }
+
+    /**
+     * Metamorphic Relation: coefficients at the limit give the same roots as the exact BigInteger discriminant
+     */
+    @Test
+    public void testLimits() {
+        RationalRoots roots = new RationalRoots();
+        assertEquals(Quadratic.STATUS_OK, IntegerQuadraticSolver.solve(-MAX, MAX, MAX, roots));
+        assertEquals(2, roots.getCount());
+        assertEquals((1 + Math.sqrt(5)) / 2, Math.max(roots.getReal1(), roots.getReal2()), 1e-15);
+
+        assertEquals(Quadratic.STATUS_OK, IntegerQuadraticSolver.solve(1, MAX, MAX, roots));
+        assertEquals(-MAX, roots.getReal1(), MAX*1e-15);
+
+        // 2^60 squared: x^2 - 2^61 x + 2^120 is out of reach of c, so use (x - 2^30)^2 scaled by 2^60
+        assertEquals(Quadratic.STATUS_OK, IntegerQuadraticSolver.solve(1L << 60, -(1L << 61), 1L << 60, roots));
+        assertEquals("x1 = 1", roots.toString());
+
+        assertEquals(Quadratic.STATUS_NOT_ENOUGH_PRECISION, IntegerQuadraticSolver.solve(0, 1, 1, roots));
+        assertEquals("no roots", roots.toString());
+        assertThrows(IllegalArgumentException.class, () -> IntegerQuadraticSolver.solve(MAX + 1, 1, 1, roots));
+        assertThrows(IllegalArgumentException.class, () -> IntegerQuadraticSolver.solve(1, Long.MIN_VALUE, 1, roots));
+    }
+
+    /**
+     * Validated coefficients that are integers within range can take the exact path
+     */
+    @Test
+    public void testDoubleEntryPoint() throws NotEnoughPrecisionException {
+        assertTrue(IntegerQuadraticSolver.isExactInteger(Quadratic.validateInput("-12")));
+        assertTrue(IntegerQuadraticSolver.isExactInteger(0x1p61));
+        assertFalse(IntegerQuadraticSolver.isExactInteger(Quadratic.validateInput("0.5")));
+        assertFalse(IntegerQuadraticSolver.isExactInteger(0x1p62));
+        assertFalse(IntegerQuadraticSolver.isExactInteger(Double.NaN));
+
+        QuadraticRoots roots = new QuadraticRoots();
+        assertEquals(Quadratic.STATUS_OK, IntegerQuadraticSolver.solve(1.0, -3.0, 2.0, roots));
+        assertEquals("x1 = 2\nx2 = 1", roots.toString());
+        assertEquals(Quadratic.STATUS_OK, IntegerQuadraticSolver.solve(1.0, 1e10, 1.0, roots));
+        assertEquals(-1e10, roots.getReal1());
+        assertThrows(IllegalArgumentException.class, () -> IntegerQuadraticSolver.solve(1.5, 1, 1, roots));
+    }
+
+}
@@ -0,0 +1,71 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Metamorphic Testing for the parallel bulk solver
+ *
+ * Splitting a batch across threads must not change any result, so the sequential solver serves as the oracle.
+ */
+public class ParallelQuadraticSolverMetamorphicTest {
+
+    private static final int SIZE = 10_000;
+
+    private final double[] a = new double[SIZE];
+    private final double[] b = new double[SIZE];
+    private final double[] c = new double[SIZE];
+
+    ParallelQuadraticSolverMetamorphicTest() {
+        Random random = new Random(465);
+        for (int i = 0; i < SIZE; i++) {
+            a[i] = random.nextGaussian() * 10;
+            b[i] = random.nextGaussian() * 10;
+            c[i] = random.nextGaussian() * 10;
+            // sprinkle in equations that fail the precision check
+            if (i % 97 == 0) a[i] = 0;
+            if (i % 101 == 0) b[i] = 1e200;
+        }
+    }
+
+    /**
+     * Metamorphic Relation: Partition Invariance
+     *
+     * Solving a batch in parallel with any split threshold gives the same output as solving it sequentially
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 1000, 1 << 20})
+    public void testParallelMatchesSequential(int threshold) {
+        double[] expectedReal = new double[2 * SIZE], expectedImaginary = new double[2 * SIZE];
+        int[] expectedCount = new int[SIZE], expectedStatus = new int[SIZE];
+        QuadraticSolver solver = new QuadraticSolver();
+        solver.solve(a, b, c, expectedReal, expectedImaginary, expectedCount, expectedStatus);
+
+        double[] real = new double[2 * SIZE], imaginary = new double[2 * SIZE];
+        int[] count = new int[SIZE], status = new int[SIZE];
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            new ParallelQuadraticSolver(solver, pool, threshold).solve(a, b, c, real, imaginary, count, status);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertArrayEquals(expectedReal, real);
+        assertArrayEquals(expectedImaginary, imaginary);
+        assertArrayEquals(expectedCount, count);
+        assertArrayEquals(expectedStatus, status);
+        assertEquals(Quadratic.STATUS_NOT_ENOUGH_PRECISION, status[0], "failures are reported, not thrown");
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ParallelQuadraticSolver(new QuadraticSolver(), ForkJoinPool.commonPool(), 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> new ParallelQuadraticSolver(null, ForkJoinPool.commonPool(), 1));
+        assertEquals(ParallelQuadraticSolver.DEFAULT_THRESHOLD, new ParallelQuadraticSolver().getThreshold());
+    }
+}
@@ -0,0 +1,186 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+/**
+ * Metamorphic Testing for the polynomial root engine
+ */
+public class PolynomialSolverMetamorphicTest {
+
+    private final PolynomialSolver solver = new PolynomialSolver(12);
+
+    /**
+     * Expands the product of (x - root) over the given roots, highest degree first
+     */
+    private static double[] expand(double[] real, double[] imaginary) {
+        int n = real.length;
+        double[] cr = new double[n + 1], ci = new double[n + 1];
+        cr[0] = 1;
+        for (int k = 0; k < n; k++) {
+            for (int j = k + 1; j >= 1; j--) {
+                double r = cr[j] - (real[k] * cr[j - 1] - imaginary[k] * ci[j - 1]);
+                double i = ci[j] - (real[k] * ci[j - 1] + imaginary[k] * cr[j - 1]);
+                cr[j] = r;
+                ci[j] = i;
+            }
+        }
+        return cr; // conjugate pairs make the imaginary parts cancel
+    }
+
+    /**
+     * Asserts that every expected root has a distinct actual root within the tolerance
+     */
+    private static void assertSameRoots(double[] real, double[] imaginary, double[] actualReal, double[] actualImaginary,
+            int offset, double tolerance) {
+        boolean[] used = new boolean[real.length];
+        for (int k = 0; k < real.length; k++) {
+            int best = -1;
+            double distance = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < real.length; j++) {
+                double d = Math.hypot(real[k] - actualReal[offset + j], imaginary[k] - actualImaginary[offset + j]);
+                if (!used[j] && d < distance) {
+                    best = j;
+                    distance = d;
+                }
+            }
+            used[best] = true;
+            assertTrue(distance <= tolerance * Math.max(1, Math.hypot(real[k], imaginary[k])),
+                "root " + real[k] + " + " + imaginary[k] + "i is " + distance + " away");
+        }
+    }
+
+    /**
+     * Fills random roots, pairing complex roots with their conjugates
+     */
+    private static void randomRoots(Random random, double[] real, double[] imaginary) {
+        int k = 0;
+        while (k < real.length) {
+            real[k] = random.nextGaussian() * 3;
+            if (k + 1 < real.length && random.nextBoolean()) {
+                imaginary[k] = random.nextGaussian() * 3;
+                real[k + 1] = real[k];
+                imaginary[k + 1] = -imaginary[k];
+                k += 2;
+            } else {
+                imaginary[k++] = 0;
+            }
+        }
+    }
+
+    /**
+     * Metamorphic Relation: solving the expanded product of known factors gives back those roots, for every degree
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 6, 8, 12})
+    public void testRootsOfProduct(int degree) {
+        Random random = new Random(17 + degree);
+        double[] real = new double[degree], imaginary = new double[degree];
+        double[] actualReal = new double[degree], actualImaginary = new double[degree];
+        for (int i = 0; i < 500; i++) {
+            randomRoots(random, real, imaginary);
+            double[] coefficients = expand(real, imaginary);
+            double scale = Math.scalb(1.0, random.nextInt(20) - 10);
+            for (int k = 0; k <= degree; k++) coefficients[k] *= scale; // scaling the polynomial keeps its roots
+            assertEquals(Quadratic.STATUS_OK, solver.solve(coefficients, actualReal, actualImaginary));
+            assertSameRoots(real, imaginary, actualReal, actualImaginary, 0, 1e-6);
+        }
+    }
+
+    /**
+     * Closed forms for textbook cubics and quartics, including zero roots and a biquadratic
+     */
+    @Test
+    public void testClosedForms() {
+        double[] real = new double[4], imaginary = new double[4];
+        assertEquals(Quadratic.STATUS_OK, solver.solve(new double[] {1, -6, 11, -6}, real, imaginary));
+        assertSameRoots(new double[] {1, 2, 3}, new double[3], real, imaginary, 0, 1e-14);
+
+        assertEquals(Quadratic.STATUS_OK, solver.solve(new double[] {1, 0, 0, -8}, real, imaginary));
+        assertSameRoots(new double[] {2, -1, -1}, new double[] {0, Math.sqrt(3), -Math.sqrt(3)}, real, imaginary, 0, 1e-14);
+
+        assertEquals(Quadratic.STATUS_OK, solver.solve(new double[] {1, 0, -3, 0, -4}, real, imaginary));
+        assertSameRoots(new double[] {2, -2, 0, 0}, new double[] {0, 0, 1, -1}, real, imaginary, 0, 1e-14);
+
+        assertEquals(Quadratic.STATUS_OK, solver.solve(new double[] {2, -4, 0, 0, 0}, real, imaginary));
+        assertSameRoots(new double[] {2, 0, 0, 0}, new double[4], real, imaginary, 0, 0);
+
+        assertEquals(Quadratic.STATUS_OK, solver.solve(new double[] {1, -10, 35, -50, 24}, real, imaginary));
+        assertSameRoots(new double[] {1, 2, 3, 4}, new double[4], real, imaginary, 0, 1e-12);
+    }
+
+    /**
+     * Cubics whose depressed form has r = 0 and q < 0 keep their complex pair instead of collapsing into a triple root
+     */
+    @Test
+    public void testCubicWithZeroR() {
+        double[] real = new double[3], imaginary = new double[3];
+        assertEquals(Quadratic.STATUS_OK, solver.solve(new double[] {1, 3, 4, 2}, real, imaginary));
+        assertSameRoots(new double[] {-1, -1, -1}, new double[] {0, 1, -1}, real, imaginary, 0, 1e-14);
+
+        assertEquals(Quadratic.STATUS_OK, solver.solve(new double[] {1, 6, 13, 10}, real, imaginary));
+        assertSameRoots(new double[] {-2, -2, -2}, new double[] {0, 1, -1}, real, imaginary, 0, 1e-14);
+
+        assertEquals(Quadratic.STATUS_OK, solver.solve(new double[] {1, -3, 6, -4}, real, imaginary));
+        assertSameRoots(new double[] {1, 1, 1}, new double[] {0, Math.sqrt(3), -Math.sqrt(3)}, real, imaginary, 0, 1e-14);
+
+        assertEquals(Quadratic.STATUS_OK, solver.solve(new double[] {1, 3, 3, 1}, real, imaginary)); // q = 0 as well
+        assertSameRoots(new double[] {-1, -1, -1}, new double[3], real, imaginary, 0, 0);
+    }
+
+    /**
+     * Metamorphic Relation: a repeated root is still found, to the accuracy its conditioning allows
+     */
+    @Test
+    public void testRepeatedRoots() {
+        double[] real = new double[5], imaginary = new double[5];
+        assertEquals(Quadratic.STATUS_OK, solver.solve(new double[] {1, -5, 10, -10, 5, -1}, real, imaginary));
+        assertSameRoots(new double[] {1, 1, 1, 1, 1}, new double[5], real, imaginary, 0, 1e-2);
+    }
+
+    /**
+     * Metamorphic Relation: a batch of polynomials gives the same roots as solving them one at a time
+     */
+    @Test
+    public void testBatchMatchesSingle() {
+        int degree = 5, n = 100;
+        Random random = new Random(18);
+        double[] coefficients = new double[n * (degree + 1)];
+        for (int i = 0; i < coefficients.length; i++) coefficients[i] = random.nextGaussian();
+        coefficients[3 * (degree + 1)] = 0; // a failure in the middle does not shift the rest
+
+        double[] real = new double[n * degree], imaginary = new double[n * degree];
+        int[] status = new int[n];
+        solver.solve(degree, coefficients, real, imaginary, status);
+
+        double[] single = new double[degree + 1], singleReal = new double[degree], singleImaginary = new double[degree];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(coefficients, i * (degree + 1), single, 0, degree + 1);
+            assertEquals(solver.solve(single, singleReal, singleImaginary), status[i]);
+            for (int k = 0; k < degree; k++) {
+                assertEquals(singleReal[k], real[i * degree + k]);
+                assertEquals(singleImaginary[k], imaginary[i * degree + k]);
+            }
+        }
+        assertEquals(Quadratic.STATUS_NOT_ENOUGH_PRECISION, status[3]);
+        assertTrue(Double.isNaN(real[3 * degree]));
+    }
+
+    /**
+     * Invalid input is reported through the status or rejected
+     */
+    @Test
+    public void testInvalidInput() {
+        double[] real = new double[3], imaginary = new double[3];
+        assertEquals(Quadratic.STATUS_NAN_INPUT, solver.solve(new double[] {1, Double.NaN, 1}, real, imaginary));
+        assertEquals(Quadratic.STATUS_OVERFLOW, solver.solve(new double[] {1, 1, Double.POSITIVE_INFINITY, 1}, real, imaginary));
+        assertEquals(Quadratic.STATUS_NOT_ENOUGH_PRECISION, solver.solve(new double[] {0, 1, 1}, real, imaginary));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(new double[] {1}, real, imaginary));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(new double[13 + 1], new double[13], new double[13]));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(new double[] {1, 2, 3, 4, 5}, real, imaginary));
+        assertThrows(IllegalArgumentException.class, () -> new PolynomialSolver(0));
+    }
+
+}
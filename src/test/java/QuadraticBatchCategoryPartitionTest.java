@@ -0,0 +1,141 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Test class using Category-Partition Testing approach for the non-interactive batch mode
+ */
+public class QuadraticBatchCategoryPartitionTest {
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private final InputStream originalIn = System.in;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void setUpStreams() {
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    public void restoreStreams() {
+        System.setOut(originalOut);
+        System.setIn(originalIn);
+    }
+
+    private static String run(String input) throws IOException {
+        StringBuilder output = new StringBuilder();
+        QuadraticBatch.run(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)),
+            ResultSink.of(output), new QuadraticSolver());
+        return output.toString();
+    }
+
+    /**
+     * Category: separators between coefficients
+     */
+    @Test
+    public void testWhitespaceAndCsvInput() throws IOException {
+        assertEquals("x1 = 2, x2 = 1\nx1 = -1\n", run("1 -3 2\n1\t2\t1\n"));
+        assertEquals("x1 = 2, x2 = 1\nx1 = 2i, x2 = -2i\n", run("1,-3,2\r\n1,0,4\r\n"));
+        assertEquals("x1 = 3, x2 = 0.5\n", run("  2   -7   3  \n\n"));
+        assertEquals("x1 = 2, x2 = 1\nx1 = -1\n", run("1 -3 2 1 2 1\n")); // several equations on one line
+        assertEquals("", run(" \n\n"));
+    }
+
+    /**
+     * Category: equations that cannot be solved produce an error line and do not shift later equations
+     */
+    @Test
+    public void testErrorLines() throws IOException {
+        assertEquals(QuadraticBatch.NOT_A_NUMBER + "\nx1 = -1\n", run("abc 2 1\n1 2 1\n"));
+        assertEquals(QuadraticBatch.OUT_OF_RANGE + "\n", run("1 1e1000 1\n"));
+        assertEquals(QuadraticBatch.A_IS_ZERO + "\n", run("0 1 1\n"));
+        assertEquals(QuadraticBatch.NO_SOLUTION + "\n", run("1 10000000000 1\n"));
+        assertEquals(QuadraticBatch.NO_SOLUTION + "\n", run("1 1 1.0E308\n")); // 4ac overflows
+        assertEquals("x1 = -1\n" + QuadraticBatch.INCOMPLETE + "\n", run("1 2 1\n1 2\n"));
+    }
+
+    /**
+     * Category: a short row is incomplete on its own, and the rows after it keep their coefficients
+     */
+    @Test
+    public void testShortRow() throws IOException {
+        String expected = "x1 = 2, x2 = 1\n" + QuadraticBatch.INCOMPLETE + "\nx1 = -1\nx1 = 2i, x2 = -2i\n";
+        assertEquals(expected, run("1,-3,2\n1,2\n1,2,1\n1,0,4\n"));
+        assertEquals(QuadraticBatch.INCOMPLETE + "\n" + QuadraticBatch.INCOMPLETE + "\n", run("  2   -7\n\n 3  "));
+        assertEquals(QuadraticBatch.INCOMPLETE + "\nx1 = -1\n", run("1\r\n1 2 1\r\n"));
+    }
+
+    /**
+     * Category: an empty CSV field is not a number, and the rows after it keep their coefficients
+     */
+    @Test
+    public void testEmptyField() throws IOException {
+        String expected = QuadraticBatch.NOT_A_NUMBER + "\nx1 = -1\n";
+        assertEquals(expected, run("1,,3\n1,2,1\n"));
+        assertEquals(expected, run("1 , , 3\n1 2 1\n"));
+        assertEquals(QuadraticBatch.NOT_A_NUMBER + "\n" + QuadraticBatch.INCOMPLETE + "\n" + QuadraticBatch.NOT_A_NUMBER + "\n",
+                run(",,1,2\n,,\n"));
+    }
+
+    /**
+     * Category: a comma at the start or end of a line encloses an empty field, which is not a number
+     */
+    @Test
+    public void testEmptyFieldAtLineEnds() throws IOException {
+        String notANumber = QuadraticBatch.NOT_A_NUMBER + "\n";
+        assertEquals(notANumber + QuadraticBatch.INCOMPLETE + "\n", run(",1,2,3\n"));
+        assertEquals(notANumber + "x1 = -1\n", run(" , 1, 2\n1,2,1\n"));
+        assertEquals(notANumber + "x1 = -1\n", run("1,2,\n1,2,1\n"));
+        assertEquals(notANumber + "x1 = -1\n", run("1,2, \r\n1,2,1\r\n"));
+        assertEquals(notANumber, run("1,2,")); // at the end of the input too
+        assertEquals(QuadraticBatch.INCOMPLETE + "\n", run(",\n"));
+        assertEquals(notANumber + QuadraticBatch.INCOMPLETE + "\n", run(",1,-3,2,\n"));
+    }
+
+    /**
+     * Category: tokens split across refills of a tiny read buffer
+     */
+    @Test
+    public void testTokenizerAcrossBufferBoundaries() throws IOException {
+        String input = "1.25, -12345.5\n0.001 7";
+        ByteTokenizer tokens = new ByteTokenizer(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), 3);
+        StringBuilder seen = new StringBuilder();
+        while (tokens.next()) {
+            seen.append('[');
+            for (int i = 0; i < tokens.length(); i++) seen.append(tokens.charAt(i));
+            seen.append(']');
+        }
+        assertEquals("[1.25][-12345.5][0.001][7]", seen.toString());
+        assertEquals(0, tokens.length());
+        assertThrows(IndexOutOfBoundsException.class, () -> tokens.charAt(0));
+    }
+
+    /**
+     * Category: the command line reads standard input or a file without prompting
+     */
+    @Test
+    public void testMainBatchMode() throws IOException {
+        System.setIn(new ByteArrayInputStream("1 -3 2\n1 2 1\n".getBytes(StandardCharsets.US_ASCII)));
+        Quadratic.main(new String[] {"--batch"});
+        assertEquals("x1 = 2, x2 = 1\nx1 = -1\n", outputStream.toString());
+        outputStream.reset();
+
+        Path file = Files.write(directory.resolve("equations.csv"), "2,-7,3\n".getBytes(StandardCharsets.US_ASCII));
+        Quadratic.main(new String[] {"--batch", file.toString()});
+        assertEquals("x1 = 3, x2 = 0.5\n", outputStream.toString());
+    }
+}
@@ -9,6 +9,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.time.Duration;
 import java.util.stream.Stream;
 
 /**
@@ -135,6 +136,174 @@ public class QuadraticCategoryPartitionTest {
             outputStream.reset();
         }
     }
+
+    /**
+     * Test the value-returning solver against the printed output for each category
+     */
+    @ParameterizedTest
+    @MethodSource("testCaseProvider")
+    public void testSolveReturnsRoots(TestCase testCase) throws NotEnoughPrecisionException {
+        QuadraticRoots roots = Quadratic.solve(testCase.a, testCase.b, testCase.c);
+        assertEquals("", outputStream.toString(), "solve should not print anything");
+
+        if ("complex".equals(testCase.expectedResult)) {
+            assertTrue(roots.isComplex());
+            assertEquals(2, roots.getCount());
+            assertEquals(roots.getImaginary1(), -roots.getImaginary2());
+        } else if ("equal".equals(testCase.expectedResult)) {
+            assertFalse(roots.isComplex());
+            assertEquals(1, roots.getCount());
+        } else {
+            assertFalse(roots.isComplex());
+            assertEquals(2, roots.getCount());
+        }
+
+        // the lazily rendered text matches what solveQuadratic prints
+        Quadratic.solveQuadratic(testCase.a, testCase.b, testCase.c);
+        assertEquals(roots.toString(), outputStream.toString().trim());
+        outputStream.reset();
+    }
+
+    @Test
+    public void testSolveReusesHolder() throws NotEnoughPrecisionException {
+        QuadraticRoots roots = new QuadraticRoots();
+        assertEquals(0, roots.getCount());
+
+        Quadratic.solve(1, -3, 2, roots);
+        assertEquals(2.0, roots.getReal1());
+        assertEquals(1.0, roots.getReal2());
+
+        Quadratic.solve(1, 0, 4, roots);
+        assertTrue(roots.isComplex());
+        assertEquals(0.0, roots.getReal1(), 0.0);
+        assertEquals(2.0, roots.getImaginary1(), 0.00001);
+
+        assertThrows(NotEnoughPrecisionException.class, () -> Quadratic.solve(0, 1, 1, roots));
+        assertEquals(0, roots.getCount());
+    }
+
+    /**
+     * Test that each failure category is reported with its own status instead of thrown
+     */
+    @Test
+    public void testFailureStatuses() {
+        QuadraticRoots roots = new QuadraticRoots();
+        assertEquals(Quadratic.STATUS_OK, Quadratic.trySolve(1, -3, 2, roots));
+        assertEquals(2, roots.getCount());
+        assertEquals(Quadratic.STATUS_NAN_INPUT, Quadratic.trySolve(Double.NaN, 1, 1, roots));
+        assertEquals(Quadratic.STATUS_NOT_ENOUGH_PRECISION, Quadratic.trySolve(0, 1, 1, roots));
+        assertEquals(Quadratic.STATUS_OVERFLOW, Quadratic.trySolve(1, 1e200, 1, roots));
+        assertEquals(Quadratic.STATUS_OVERFLOW, Quadratic.trySolve(1, Double.POSITIVE_INFINITY, 1, roots));
+        assertEquals(Quadratic.STATUS_UNDERFLOW, Quadratic.trySolve(1e-200, 1e-200, 1e-200, roots));
+        assertEquals(Quadratic.STATUS_CANCELLATION, Quadratic.trySolve(1, 1e10, 1, roots));
+
+        // an overflowing 4ac or an underflowing b^2 and 4ac used to slip past the check with wrong roots
+        assertEquals(Quadratic.STATUS_OVERFLOW, Quadratic.trySolve(1, 1, 1e308, roots));
+        assertEquals(Quadratic.STATUS_OVERFLOW, Quadratic.trySolve(1.1777974265817793E151, -4.965723954381377E152,
+            -7.900809473746478E159, roots));
+        assertEquals(Quadratic.STATUS_UNDERFLOW, Quadratic.trySolve(-7.841185216798147E-163, -7.718412212577841E-167,
+            8.311167791368097E-163, roots));
+        assertEquals(Quadratic.STATUS_UNDERFLOW, Quadratic.trySolve(1e-170, 1e-170, 1e-170, roots));
+        assertEquals(0, roots.getCount());
+        assertEquals(0, roots.getCount());
+        assertEquals("", outputStream.toString());
+    }
+
+    /**
+     * Test that thrown failures are preallocated, stackless and carry their status
+     */
+    @Test
+    public void testStacklessException() {
+        NotEnoughPrecisionException first = assertThrows(NotEnoughPrecisionException.class, () -> Quadratic.solve(1, 1e10, 1));
+        NotEnoughPrecisionException second = assertThrows(NotEnoughPrecisionException.class, () -> Quadratic.solve(2, 2e10, 1));
+        assertSame(first, second);
+        assertEquals(Quadratic.STATUS_CANCELLATION, first.getStatus());
+        assertEquals(0, first.getStackTrace().length);
+        assertSame(NotEnoughPrecisionException.forStatus(Quadratic.STATUS_OVERFLOW),
+            assertThrows(NotEnoughPrecisionException.class, () -> Quadratic.solve(1, 1e200, 1)));
+        assertThrows(IllegalArgumentException.class, () -> NotEnoughPrecisionException.forStatus(Quadratic.STATUS_OK));
+
+        // exceptions created directly keep their stack trace
+        NotEnoughPrecisionException created = new NotEnoughPrecisionException();
+        assertEquals(Quadratic.STATUS_NOT_ENOUGH_PRECISION, created.getStatus());
+        assertTrue(created.getStackTrace().length > 0);
+    }
+
+    /**
+     * Test the batch solver with one equation from each discriminant category
+     */
+    @Test
+    public void testBatchSolverCategories() {
+        double[] a = {1, 1, 1, 0};
+        double[] b = {-3, 2, 2, 1};
+        double[] c = {2, 1, 10, 1};
+        double[] real = new double[8];
+        double[] imaginary = new double[8];
+        int[] count = new int[4];
+        int[] status = new int[4];
+
+        Quadratic.solveQuadratic(a, b, c, real, imaginary, count, status);
+
+        // Positive discriminant: two distinct real roots
+        assertEquals(Quadratic.STATUS_OK, status[0]);
+        assertEquals(2, count[0]);
+        assertEquals(2.0, real[0]);
+        assertEquals(1.0, real[1]);
+        assertEquals(0.0, imaginary[0]);
+
+        // Zero discriminant: one repeated root
+        assertEquals(Quadratic.STATUS_OK, status[1]);
+        assertEquals(1, count[1]);
+        assertEquals(-1.0, real[2]);
+
+        // Negative discriminant: complex conjugate roots
+        assertEquals(Quadratic.STATUS_OK, status[2]);
+        assertEquals(2, count[2]);
+        assertEquals(-1.0, real[4]);
+        assertEquals(-1.0, real[5]);
+        assertEquals(3.0, imaginary[4], 0.00001);
+        assertEquals(-imaginary[4], imaginary[5]);
+
+        // a = 0 is reported instead of thrown
+        assertEquals(Quadratic.STATUS_NOT_ENOUGH_PRECISION, status[3]);
+        assertEquals(0, count[3]);
+
+        // Nothing is printed by the batch solver
+        assertEquals("", outputStream.toString());
+    }
+
+    /**
+     * Test that a row whose discriminant overflows is reported in the batch instead of hanging the square root
+     */
+    @Test
+    public void testBatchSolverOverflowingDiscriminant() {
+        double[] a = {1, 1, 1, 1};
+        double[] b = {1, 1e300, -3, 1.3e154};
+        double[] c = {1e308, -1e300, 2, -4.2e307}; // the last has finite products but an infinite difference
+        double[] real = new double[8];
+        double[] imaginary = new double[8];
+        int[] count = new int[4];
+        int[] status = new int[4];
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> Quadratic.solveQuadratic(a, b, c, real, imaginary, count, status));
+        assertArrayEquals(new int[] {Quadratic.STATUS_OVERFLOW, Quadratic.STATUS_OVERFLOW, Quadratic.STATUS_OK,
+            Quadratic.STATUS_OVERFLOW}, status);
+        assertEquals(2.0, real[4]);
+        assertTrue(Double.isNaN(real[0]));
+        assertEquals(Double.POSITIVE_INFINITY, Quadratic.sqrtByNewton(Double.POSITIVE_INFINITY));
+        assertTrue(Double.isNaN(Quadratic.sqrtByNewton(Double.NaN)));
+    }
+
+    @Test
+    public void testBatchSolverRejectsMismatchedArrays() {
+        assertThrows(IllegalArgumentException.class, () ->
+            Quadratic.solveQuadratic(new double[2], new double[1], new double[2],
+                new double[4], new double[4], new int[2], new int[2]));
+        assertThrows(IllegalArgumentException.class, () ->
+            Quadratic.solveQuadratic(new double[2], new double[2], new double[2],
+                new double[2], new double[4], new int[2], new int[2]));
+    }
     
     /**
      * Categories for validateInput method
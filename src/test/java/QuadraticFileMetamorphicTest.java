@@ -0,0 +1,72 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Metamorphic Testing for the memory-mapped columnar file solver
+ *
+ * Solving equations stored in a coefficient file must give the same roots as solving the same columns in memory.
+ */
+public class QuadraticFileMetamorphicTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Metamorphic Relation: Storage Invariance
+     *
+     * Writing coefficients to a file, solving it and reading the roots back is equivalent to a batch solve,
+     * including across the boundary between two mapped chunks
+     */
+    @Test
+    public void testFileSolveMatchesBatchSolve() throws IOException {
+        int size = QuadraticFile.CHUNK + 3;
+        Random random = new Random(9730117);
+        double[] a = new double[size], b = new double[size], c = new double[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = (i % 1000 == 0) ? 0 : random.nextGaussian();
+            b[i] = random.nextGaussian();
+            c[i] = random.nextGaussian();
+        }
+
+        QuadraticSolver solver = new QuadraticSolver();
+        double[] expectedReal = new double[2 * size], expectedImaginary = new double[2 * size];
+        int[] expectedCount = new int[size], expectedStatus = new int[size];
+        solver.solve(a, b, c, expectedReal, expectedImaginary, expectedCount, expectedStatus);
+
+        Path coefficients = directory.resolve("coefficients.bin");
+        Path roots = directory.resolve("roots.bin");
+        QuadraticFile.writeCoefficients(coefficients, a, b, c);
+        assertEquals(16 + 24L * size, Files.size(coefficients));
+        assertEquals(size, QuadraticFile.solve(coefficients, roots, solver));
+
+        double[] real = new double[2 * size], imaginary = new double[2 * size];
+        int[] count = new int[size], status = new int[size];
+        assertEquals(size, QuadraticFile.readRoots(roots, real, imaginary, count, status));
+
+        assertArrayEquals(expectedReal, real);
+        assertArrayEquals(expectedImaginary, imaginary);
+        assertArrayEquals(expectedCount, count);
+        assertArrayEquals(expectedStatus, status);
+    }
+
+    @Test
+    public void testRejectsWrongFileType() throws IOException {
+        Path coefficients = directory.resolve("coefficients.bin");
+        Path roots = directory.resolve("roots.bin");
+        QuadraticFile.writeCoefficients(coefficients, new double[] {1}, new double[] {-3}, new double[] {2});
+        QuadraticFile.solve(coefficients, roots, new QuadraticSolver());
+
+        // a root file is not a coefficient file and vice versa
+        assertThrows(IOException.class, () -> QuadraticFile.solve(roots, directory.resolve("other.bin"), new QuadraticSolver()));
+        assertThrows(IOException.class, () -> QuadraticFile.readRoots(coefficients, new double[2], new double[2], new int[1], new int[1]));
+
+        Path empty = Files.createFile(directory.resolve("empty.bin"));
+        assertThrows(IOException.class, () -> QuadraticFile.solve(empty, roots, new QuadraticSolver()));
+    }
+}
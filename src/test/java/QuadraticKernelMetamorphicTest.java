@@ -0,0 +1,52 @@
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+/**
+ * Metamorphic Testing for the lane-parallel batch kernel
+ *
+ * Selecting branches per lane must give the same output as solving each equation on its own with the intrinsic square root.
+ */
+public class QuadraticKernelMetamorphicTest {
+
+    /**
+     * Metamorphic Relation: Lane Invariance
+     *
+     * Any batch size, including ones that leave a partial block, gives the same output as the scalar solver
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, QuadraticKernel.BLOCK - 1, QuadraticKernel.BLOCK, 3 * QuadraticKernel.BLOCK + 17})
+    public void testKernelMatchesScalarSolver(int size) {
+        Random random = new Random(size);
+        double[] a = new double[size], b = new double[size], c = new double[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = random.nextGaussian();
+            b[i] = random.nextGaussian();
+            c[i] = random.nextGaussian();
+            switch (i % 7) {
+                case 1: a[i] = 0; break;                   // not a quadratic
+                case 2: b[i] = 2; a[i] = 1; c[i] = 1; break; // equal roots
+                case 3: b[i] = 0; break;                   // symmetric roots
+                case 4: b[i] = Double.NaN; break;          // invalid coefficient
+                default: break;
+            }
+        }
+
+        double[] real = new double[2 * size], imaginary = new double[2 * size];
+        int[] count = new int[size], status = new int[size];
+        new QuadraticSolver(SqrtStrategy.INTRINSIC).solve(a, b, c, real, imaginary, count, status);
+
+        QuadraticSolver scalar = new QuadraticSolver(SqrtStrategy.INTRINSIC);
+        QuadraticRoots roots = new QuadraticRoots();
+        for (int i = 0; i < size; i++) {
+            assertEquals(scalar.solveInto(a[i], b[i], c[i], roots), status[i], "status of equation " + i);
+            assertEquals(roots.getCount(), count[i], "count of equation " + i);
+            assertEquals(roots.getReal1(), real[2 * i], "x1 of equation " + i);
+            assertEquals(roots.getReal2(), real[2 * i + 1], "x2 of equation " + i);
+            assertEquals(roots.getImaginary1(), imaginary[2 * i], "imaginary x1 of equation " + i);
+            assertEquals(roots.getImaginary2(), imaginary[2 * i + 1], "imaginary x2 of equation " + i);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Metamorphic Testing for the pipelined batch mode and its ring buffers
+ */
+public class QuadraticPipelineMetamorphicTest {
+
+    private static String input(int equations, boolean incomplete) {
+        Random random = new Random(21);
+        String[] special = {"abc", "1e1000", "0", "10000000000"};
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < equations; i++) {
+            for (int k = 0; k < 3; k++) {
+                if (random.nextInt(40) == 0) input.append(special[random.nextInt(special.length)]);
+                else input.append(random.nextInt(2001) - 1000).append('.').append(random.nextInt(10));
+                input.append(k < 2 ? (random.nextBoolean() ? " " : ",") : "\n");
+            }
+        }
+        if (incomplete) input.append("1 2\n");
+        return input.toString();
+    }
+
+    private static InputStream stream(String input) {
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Metamorphic Relation: the pipeline writes the same lines as the sequential batch mode, whatever the batch size and number of workers
+     */
+    @ParameterizedTest
+    @CsvSource({"1, 1, 0", "4, 7, 1", "3, 1024, 10000", "8, 64, 20000", "2, 5000, 3"})
+    public void testSameOutputAsBatch(int workers, int batchSize, int equations) throws IOException {
+        String input = input(equations, equations % 2 == 1);
+        StringBuilder expected = new StringBuilder();
+        long expectedCount = QuadraticBatch.run(stream(input), ResultSink.of(expected), new QuadraticSolver());
+
+        StringBuilder actual = new StringBuilder();
+        QuadraticPipeline pipeline = new QuadraticPipeline(new QuadraticSolver(), workers, batchSize);
+        assertEquals(expectedCount, pipeline.run(stream(input), ResultSink.of(actual)));
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    /**
+     * Metamorphic Relation: short rows and empty fields give the same lines as the sequential batch mode and do not shift later rows
+     */
+    @Test
+    public void testShortRowsAndEmptyFields() throws IOException {
+        String input = "1,-3,2\n1,2\n1,,3\n1 2 1 1 0\n\n,1,0,4,\n7\n";
+        StringBuilder expected = new StringBuilder();
+        long expectedCount = QuadraticBatch.run(stream(input), ResultSink.of(expected), new QuadraticSolver());
+        assertEquals(8, expectedCount);
+
+        StringBuilder actual = new StringBuilder();
+        assertEquals(expectedCount, new QuadraticPipeline(new QuadraticSolver(), 2, 2).run(stream(input), ResultSink.of(actual)));
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    /**
+     * A failing input stops every stage and is reported to the caller
+     */
+    @Test
+    public void testReadFailure() {
+        InputStream failing = new InputStream() {
+            private int left = 100000;
+
+            @Override
+            public int read() throws IOException {
+                if (left-- <= 0) throw new IOException("disk gone");
+                return left % 8 == 0 ? '\n' : '1';
+            }
+        };
+        IOException e = assertThrows(IOException.class,
+            () -> new QuadraticPipeline(new QuadraticSolver(), 2, 16).run(failing, ResultSink.of(new StringBuilder())));
+        assertEquals("disk gone", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new QuadraticPipeline(new QuadraticSolver(), 0, 16));
+        assertThrows(IllegalArgumentException.class, () -> new QuadraticPipeline(new QuadraticSolver(), 1, 0));
+    }
+
+    /**
+     * Metamorphic Relation: elements offered by several producers are each polled exactly once, and one producer's elements stay in order
+     */
+    @Test
+    public void testRingBufferConcurrently() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(60);
+        assertEquals(64, buffer.capacity());
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+
+        int producers = 4, perProducer = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers + 2);
+        try {
+            List<Future<?>> producing = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                producing.add(executor.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(base + i)) Thread.yield();
+                    }
+                }));
+            }
+            List<Future<int[]>> consuming = new ArrayList<>();
+            int total = producers * perProducer;
+            AtomicInteger taken = new AtomicInteger();
+            for (int q = 0; q < 2; q++) {
+                consuming.add(executor.submit(() -> {
+                    int[] seen = new int[total];
+                    int[] last = new int[producers];
+                    Arrays.fill(last, -1);
+                    while (taken.get() < total) {
+                        Integer element = buffer.poll();
+                        if (element == null) {
+                            Thread.yield();
+                            continue;
+                        }
+                        taken.incrementAndGet();
+                        seen[element]++;
+                        int producer = element / perProducer;
+                        assertTrue(element > last[producer]);
+                        last[producer] = element;
+                    }
+                    return seen;
+                }));
+            }
+            for (Future<?> future : producing) future.get(30, TimeUnit.SECONDS);
+            int[] seen = new int[total];
+            for (Future<int[]> future : consuming) {
+                int[] part = future.get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < total; i++) seen[i] += part[i];
+            }
+            for (int i = 0; i < total; i++) assertEquals(1, seen[i]);
+            assertTrue(buffer.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        RingBuffer<String> small = new RingBuffer<>(2);
+        assertTrue(small.offer("a"));
+        assertTrue(small.offer("b"));
+        assertFalse(small.offer("c"));
+        assertEquals("a", small.poll());
+        assertTrue(small.offer("c"));
+        assertEquals("b", small.poll());
+        assertEquals("c", small.poll());
+        assertThrows(NullPointerException.class, () -> small.offer(null));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<String>(0));
+    }
+
+}
@@ -0,0 +1,270 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metamorphic Testing for the reactive streaming solver
+ */
+public class QuadraticProcessorMetamorphicTest {
+
+    private static final int SIZE = 1000;
+
+    private final double[] a = new double[SIZE], b = new double[SIZE], c = new double[SIZE];
+    private final double[] real = new double[2 * SIZE], imaginary = new double[2 * SIZE];
+    private final int[] count = new int[SIZE], status = new int[SIZE];
+
+    QuadraticProcessorMetamorphicTest() {
+        Random random = new Random(20);
+        for (int i = 0; i < SIZE; i++) {
+            a[i] = random.nextGaussian();
+            b[i] = random.nextGaussian();
+            c[i] = random.nextGaussian();
+            if (i % 50 == 0) a[i] = 0; // failures are delivered with their status
+        }
+        new QuadraticSolver().solve(a, b, c, real, imaginary, count, status);
+    }
+
+    /**
+     * Synchronous source of the test equations that records the demand it receives
+     */
+    private final class Source implements Flow.Publisher<double[]> {
+
+        private final int size;
+        private int next;
+        private long requested, maxOutstanding;
+        private boolean cancelled;
+
+        Source(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super double[]> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private long outstanding;
+
+                public void request(long n) {
+                    requested += n;
+                    outstanding += n;
+                    maxOutstanding = Math.max(maxOutstanding, outstanding);
+                    while (outstanding > 0 && next < size && !cancelled) {
+                        outstanding--;
+                        int i = next++;
+                        subscriber.onNext(new double[] {a[i], b[i], c[i]});
+                    }
+                    if (next == size && !cancelled) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                    }
+                }
+
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+
+    }
+
+    /**
+     * Subscriber that records everything and requests only when told to
+     */
+    private static final class Sink implements Flow.Subscriber<QuadraticProcessor.Solution> {
+
+        private final List<QuadraticProcessor.Solution> solutions = new ArrayList<>();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private Throwable error;
+        private boolean complete;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(QuadraticProcessor.Solution solution) {
+            solutions.add(solution);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            finished.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            complete = true;
+            finished.countDown();
+        }
+
+    }
+
+    private void assertSolutions(List<QuadraticProcessor.Solution> solutions, int from) {
+        for (int k = 0; k < solutions.size(); k++) {
+            QuadraticProcessor.Solution solution = solutions.get(k);
+            int i = from + k;
+            assertEquals(a[i], solution.getA());
+            assertEquals(b[i], solution.getB());
+            assertEquals(c[i], solution.getC());
+            assertEquals(status[i], solution.getStatus());
+            QuadraticRoots roots = solution.getRoots();
+            assertEquals(count[i], roots.getCount());
+            if (status[i] == Quadratic.STATUS_OK) {
+                assertEquals(real[2 * i], roots.getReal1());
+                assertEquals(real[2 * i + 1], roots.getReal2());
+                assertEquals(imaginary[2 * i], roots.getImaginary1());
+            }
+        }
+    }
+
+    /**
+     * Metamorphic Relation: streaming the equations gives the same solutions, in order, as solving them as one batch
+     */
+    @Test
+    public void testStreamMatchesBatch() throws InterruptedException {
+        QuadraticProcessor processor = new QuadraticProcessor(new QuadraticSolver(), 64);
+        Sink sink = new Sink();
+        processor.subscribe(sink);
+        try (SubmissionPublisher<double[]> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            sink.subscription.request(Long.MAX_VALUE);
+            for (int i = 0; i < SIZE; i++) {
+                publisher.submit(new double[] {a[i], b[i], c[i]});
+            }
+        }
+        assertTrue(sink.finished.await(10, TimeUnit.SECONDS));
+        assertTrue(sink.complete);
+        assertEquals(SIZE, sink.solutions.size());
+        assertSolutions(sink.solutions, 0);
+    }
+
+    /**
+     * Metamorphic Relation: upstream demand never exceeds downstream demand or the batch size, however the demand is split
+     */
+    @Test
+    public void testBackpressure() {
+        Source source = new Source(SIZE);
+        QuadraticProcessor processor = new QuadraticProcessor(new QuadraticSolver(), 16);
+        Sink sink = new Sink();
+        processor.subscribe(sink);
+        source.subscribe(processor);
+        assertEquals(0, source.requested);
+
+        sink.subscription.request(5);
+        assertEquals(5, sink.solutions.size());
+        assertEquals(5, source.requested);
+
+        sink.subscription.request(3);
+        sink.subscription.request(100);
+        assertEquals(108, sink.solutions.size());
+        assertEquals(108, source.requested);
+        assertTrue(source.maxOutstanding <= 16);
+        assertSolutions(sink.solutions, 0);
+
+        sink.subscription.request(Long.MAX_VALUE);
+        assertTrue(sink.complete);
+        assertEquals(SIZE, sink.solutions.size());
+        assertSolutions(sink.solutions, 0);
+        assertTrue(source.maxOutstanding <= 16);
+    }
+
+    /**
+     * Metamorphic Relation: a partial batch left when upstream completes is still delivered
+     */
+    @Test
+    public void testPartialBatch() {
+        Source source = new Source(10);
+        QuadraticProcessor processor = new QuadraticProcessor(new QuadraticSolver(), 64);
+        Sink sink = new Sink();
+        source.subscribe(processor);
+        processor.subscribe(sink);
+        sink.subscription.request(1000);
+        assertTrue(sink.complete);
+        assertEquals(10, sink.solutions.size());
+        assertSolutions(sink.solutions, 0);
+    }
+
+    /**
+     * Metamorphic Relation: each solution carries the roots the solver produced, including the complex flag of a pair whose imaginary
+     * part underflowed to zero and the precision tier of a tiered solver
+     */
+    @Test
+    public void testRootsMatchSolver() {
+        double[][] equations = {
+            {8.662870409560825E307, 4.137645061499931E-8, 4.9E-324}, // complex, imaginary part underflows
+            {1.0000000074505806, 2, 0.9999999925494194}, // needs more than double precision
+            {1, -3, 2},
+            {0, 1, 1}
+        };
+        TieredQuadraticSolver solver = new TieredQuadraticSolver();
+        QuadraticProcessor processor = new QuadraticProcessor(solver, 3);
+        Sink sink = new Sink();
+        processor.subscribe(sink);
+        try (SubmissionPublisher<double[]> publisher = new SubmissionPublisher<>(Runnable::run, 16)) {
+            publisher.subscribe(processor);
+            sink.subscription.request(Long.MAX_VALUE);
+            for (double[] equation : equations) publisher.submit(equation);
+        }
+        assertTrue(sink.complete);
+        assertEquals(equations.length, sink.solutions.size());
+
+        QuadraticRoots expected = new QuadraticRoots();
+        for (int i = 0; i < equations.length; i++) {
+            QuadraticRoots roots = sink.solutions.get(i).getRoots();
+            assertEquals(solver.trySolve(equations[i][0], equations[i][1], equations[i][2], expected), sink.solutions.get(i).getStatus());
+            assertEquals(expected.isComplex(), roots.isComplex());
+            assertEquals(expected.getPrecisionTier(), roots.getPrecisionTier());
+            assertEquals(expected.getCount(), roots.getCount());
+            assertEquals(expected.getReal1(), roots.getReal1());
+            assertEquals(expected.getReal2(), roots.getReal2());
+            assertEquals(expected.getImaginary1(), roots.getImaginary1());
+        }
+        assertTrue(sink.solutions.get(0).getRoots().isComplex());
+        assertEquals(0.0, sink.solutions.get(0).getRoots().getImaginary1());
+        assertNotEquals(PrecisionTier.DOUBLE, sink.solutions.get(1).getRoots().getPrecisionTier());
+    }
+
+    /**
+     * Invalid demand, cancellation and extra subscribers
+     */
+    @Test
+    public void testProtocol() {
+        Source source = new Source(SIZE);
+        QuadraticProcessor processor = new QuadraticProcessor();
+        Sink sink = new Sink();
+        processor.subscribe(sink);
+        source.subscribe(processor);
+        sink.subscription.request(0);
+        assertTrue(sink.error instanceof IllegalArgumentException);
+        assertTrue(source.cancelled);
+
+        Sink extra = new Sink();
+        processor.subscribe(extra);
+        assertTrue(extra.error instanceof IllegalStateException);
+
+        Source cancelled = new Source(SIZE);
+        QuadraticProcessor other = new QuadraticProcessor(new QuadraticSolver(), 8);
+        Sink partial = new Sink();
+        other.subscribe(partial);
+        cancelled.subscribe(other);
+        partial.subscription.request(4);
+        partial.subscription.cancel();
+        partial.subscription.request(4);
+        assertTrue(cancelled.cancelled);
+        assertEquals(4, partial.solutions.size());
+        assertFalse(partial.complete);
+
+        assertThrows(IllegalArgumentException.class, () -> new QuadraticProcessor(new QuadraticSolver(), 0));
+        assertThrows(IllegalArgumentException.class, () -> new QuadraticProcessor(null, 1));
+    }
+
+}
@@ -0,0 +1,111 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Test class using Category-Partition Testing approach for the local server mode
+ */
+public class QuadraticServerCategoryPartitionTest {
+
+    private QuadraticServer server;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = new QuadraticServer(0);
+    }
+
+    @AfterEach
+    public void stopServer() throws IOException {
+        server.close();
+    }
+
+    /**
+     * Category: one request at a time, waiting for each response
+     */
+    @Test
+    public void testRequestResponse() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            OutputStream output = socket.getOutputStream();
+            BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+
+            output.write("1 -3 2\n".getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+            assertEquals("x1 = 2, x2 = 1", input.readLine());
+
+            output.write("0 1 1\n".getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+            assertEquals(QuadraticBatch.A_IS_ZERO, input.readLine());
+        }
+    }
+
+    /**
+     * Category: pipelined requests are answered in order
+     */
+    @Test
+    public void testPipelinedResponsesInOrder() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            OutputStream output = socket.getOutputStream();
+            BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+
+            output.write("1 -3 2\n1 0 4\nabc 1 1\n1 2 1\n".getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+            assertEquals("x1 = 2, x2 = 1", input.readLine());
+            assertEquals("x1 = 2i, x2 = -2i", input.readLine());
+            assertEquals(QuadraticBatch.NOT_A_NUMBER, input.readLine());
+            assertEquals("x1 = -1", input.readLine());
+
+            // closing the request side still delivers the report for an unfinished equation
+            output.write("1 2\n".getBytes(StandardCharsets.US_ASCII));
+            socket.shutdownOutput();
+            assertEquals(QuadraticBatch.INCOMPLETE, input.readLine());
+            assertNull(input.readLine());
+        }
+    }
+
+    /**
+     * Category: many concurrent pipelined connections from the load generator
+     */
+    @Test
+    public void testLoadClient() throws IOException, InterruptedException {
+        assertEquals(64L * 500, QuadraticLoadClient.run(server.getPort(), 64, 500, 32));
+        assertEquals(0L, QuadraticLoadClient.run(server.getPort(), 1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> QuadraticLoadClient.run(server.getPort(), 0, 1, 1));
+    }
+
+    /**
+     * Category: the load generator rejects responses whose roots are wrong, even when they are well formed
+     */
+    @Test
+    public void testLoadClientChecksRoots() throws IOException {
+        QuadraticSolver wrong = new QuadraticSolver() {
+            @Override
+            int solveInto(double a, double b, double c, QuadraticRoots roots) {
+                return super.solveInto(a, b + 1, c, roots);
+            }
+        };
+        try (QuadraticServer faulty = new QuadraticServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), wrong)) {
+            assertThrows(IOException.class, () -> QuadraticLoadClient.run(faulty.getPort(), 1, 10, 4));
+        }
+    }
+
+    /**
+     * Category: closing the server stops the acceptor
+     */
+    @Test
+    public void testCloseStopsAcceptor() throws IOException, InterruptedException {
+        server.close();
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> server.await());
+    }
+
+}
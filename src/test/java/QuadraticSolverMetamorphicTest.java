@@ -0,0 +1,128 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+/**
+ * Metamorphic Testing for exponent-scaled solving
+ */
+public class QuadraticSolverMetamorphicTest {
+
+    private final QuadraticSolver plain = new QuadraticSolver(SqrtStrategy.SEEDED_NEWTON);
+    private final QuadraticSolver scaled = new QuadraticSolver(SqrtStrategy.SEEDED_NEWTON, true);
+
+    /**
+     * Metamorphic Relation: equations that solve without scaling get bit-identical roots with scaling enabled
+     */
+    @Test
+    public void testWorkingInputsUnchanged() {
+        QuadraticRoots expected = new QuadraticRoots();
+        QuadraticRoots actual = new QuadraticRoots();
+        Random random = new Random(15);
+
+        for (int i = 0; i < 10000; i++) {
+            double a = Math.scalb(random.nextGaussian(), random.nextInt(200) - 100);
+            double b = Math.scalb(random.nextGaussian(), random.nextInt(200) - 100);
+            double c = Math.scalb(random.nextGaussian(), random.nextInt(200) - 100);
+            int status = plain.solveInto(a, b, c, expected);
+            if (status != Quadratic.STATUS_OK) continue;
+            assertEquals(status, scaled.solveInto(a, b, c, actual));
+            assertEquals(Double.doubleToRawLongBits(expected.getReal1()), Double.doubleToRawLongBits(actual.getReal1()));
+            assertEquals(Double.doubleToRawLongBits(expected.getReal2()), Double.doubleToRawLongBits(actual.getReal2()));
+            assertEquals(Double.doubleToRawLongBits(expected.getImaginary1()), Double.doubleToRawLongBits(actual.getImaginary1()));
+        }
+    }
+
+    /**
+     * Metamorphic Relation: multiplying every coefficient by 2^k keeps the roots, even when b*b or 4*a*c overflow or underflow
+     */
+    @Test
+    public void testScalingRelation() throws NotEnoughPrecisionException {
+        Random random = new Random(16);
+        for (int i = 0; i < 1000; i++) {
+            double a = random.nextGaussian(), b = random.nextGaussian()*10, c = random.nextGaussian();
+            QuadraticRoots source = scaled.solve(a, b, c);
+            for (int k : new int[] {-1000, -600, 600, 1000}) {
+                QuadraticRoots followUp = scaled.solve(Math.scalb(a, k), Math.scalb(b, k), Math.scalb(c, k));
+                assertEquals(source.getReal1(), followUp.getReal1(), Math.abs(source.getReal1())*1e-15);
+                assertEquals(source.getReal2(), followUp.getReal2(), Math.abs(source.getReal2())*1e-15);
+                assertEquals(source.getImaginary1(), followUp.getImaginary1(), Math.abs(source.getImaginary1())*1e-15);
+            }
+        }
+        assertThrows(NotEnoughPrecisionException.class, () -> plain.solve(1e200, 3e200, 2e200));
+        assertEquals("x1 = -2\nx2 = -1", scaled.solve(1e200, 3e200, 2e200).toString());
+        assertEquals("x1 = -2\nx2 = -1", scaled.solve(1e-200, 3e-200, 2e-200).toString());
+    }
+
+    /**
+     * Metamorphic Relation: substituting x = 2^j*y multiplies the roots by 2^j
+     */
+    @Test
+    public void testRootScalingRelation() throws NotEnoughPrecisionException {
+        QuadraticRoots source = scaled.solve(1, -3, 2);
+        for (int j : new int[] {-400, -100, 100, 400}) {
+            QuadraticRoots followUp = scaled.solve(1, Math.scalb(-3.0, j), Math.scalb(2.0, 2*j));
+            assertEquals(Math.scalb(source.getReal1(), j), followUp.getReal1(), Math.scalb(1e-15, j));
+            assertEquals(Math.scalb(source.getReal2(), j), followUp.getReal2(), Math.scalb(1e-15, j));
+        }
+    }
+
+    /**
+     * Equations whose 4ac overflows or whose products underflow used to pass the precision check with wrong roots. Now they fail
+     * unscaled and are solved by the scaled retry, agreeing with the tiered solver
+     */
+    @Test
+    public void testOverflowingAndUnderflowingProductsRetried() throws NotEnoughPrecisionException {
+        double[][] equations = {
+            {1.1777974265817793E151, -4.965723954381377E152, -7.900809473746478E159}, // 4ac overflows
+            {1, 1, 1e308}, // 4ac overflows, complex roots
+            {-7.841185216798147E-163, -7.718412212577841E-167, 8.311167791368097E-163} // b^2 and 4ac underflow
+        };
+        TieredQuadraticSolver tiered = new TieredQuadraticSolver();
+        QuadraticRoots roots = new QuadraticRoots();
+        for (double[] e : equations) {
+            assertNotEquals(Quadratic.STATUS_OK, plain.solveInto(e[0], e[1], e[2], roots));
+            QuadraticRoots actual = scaled.solve(e[0], e[1], e[2]);
+            QuadraticRoots expected = tiered.solve(e[0], e[1], e[2]);
+            assertEquals(expected.isComplex(), actual.isComplex());
+            assertEquals(expected.getReal1(), actual.getReal1(), Math.abs(expected.getReal1())*1e-14);
+            assertEquals(expected.getReal2(), actual.getReal2(), Math.abs(expected.getReal2())*1e-14);
+            assertEquals(expected.getImaginary1(), actual.getImaginary1(), Math.abs(expected.getImaginary1())*1e-14);
+        }
+        assertEquals(25921.1, scaled.solve(equations[0][0], equations[0][1], equations[0][2]).getReal1(), 0.1);
+        assertEquals(1e154, Math.abs(scaled.solve(1, 1, 1e308).getImaginary1()), 1e140);
+        assertEquals(1.0295, Math.abs(scaled.solve(equations[2][0], equations[2][1], equations[2][2]).getReal1()), 1e-4);
+    }
+
+    /**
+     * Roots outside the double range, b^2 much bigger than 4ac and invalid inputs still fail
+     */
+    @Test
+    public void testFailures() {
+        assertThrows(NotEnoughPrecisionException.class, () -> scaled.solve(1e-300, 1e300, 1e300));
+        assertThrows(NotEnoughPrecisionException.class, () -> scaled.solve(1, 1e10, 1));
+        assertThrows(NotEnoughPrecisionException.class, () -> scaled.solve(0, 1, 1));
+        assertThrows(NotEnoughPrecisionException.class, () -> scaled.solve(Double.NaN, 1, 1));
+        assertFalse(plain.isScaling());
+        assertTrue(scaled.isScaling());
+    }
+
+    /**
+     * Metamorphic Relation: the lane-parallel batch retries failed equations scaled, like the scalar path
+     */
+    @Test
+    public void testBatchRetriesScaled() {
+        QuadraticSolver intrinsic = new QuadraticSolver(SqrtStrategy.INTRINSIC, true);
+        double[] a = {1e200, 1, 1e-200, 1};
+        double[] b = {3e200, -3, 3e-200, 1e10};
+        double[] c = {2e200, 2, 2e-200, 1};
+        double[] real = new double[8], imaginary = new double[8];
+        int[] count = new int[4], status = new int[4];
+        intrinsic.solve(a, b, c, real, imaginary, count, status);
+
+        assertArrayEquals(new int[] {0, 0, 0, Quadratic.STATUS_CANCELLATION}, status);
+        assertArrayEquals(new int[] {2, 2, 2, 0}, count);
+        assertArrayEquals(new double[] {-2, -1, 2, 1, -2, -1}, java.util.Arrays.copyOf(real, 6), 1e-15);
+    }
+
+}
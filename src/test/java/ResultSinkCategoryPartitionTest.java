@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Test class using Category-Partition Testing approach for the solver output sinks
+ */
+public class ResultSinkCategoryPartitionTest {
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+
+    @BeforeEach
+    public void setUpStreams() {
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    public void restoreStreams() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Category: console sink prints immediately, like solveQuadratic always did
+     */
+    @Test
+    public void testConsoleSink() throws Exception {
+        ResultSink sink = ResultSink.console();
+        Quadratic.solveQuadratic(1, -3, 2, sink);
+        sink.write("done");
+        assertEquals("x1 = 2" + System.lineSeparator() + "x2 = 1" + System.lineSeparator()
+            + "done" + System.lineSeparator(), outputStream.toString());
+    }
+
+    /**
+     * Category: appendable sink holds records until its buffer fills or it is flushed
+     */
+    @Test
+    public void testAppendableSinkBuffers() throws Exception {
+        StringWriter writer = new StringWriter();
+        ResultSink sink = ResultSink.of(writer, 1024);
+        Quadratic.solveQuadratic(1, 2, 1, sink);
+        Quadratic.solveQuadratic(1, 0, 4, sink);
+        assertEquals("", writer.toString(), "nothing is written before the buffer is flushed");
+
+        sink.flush();
+        assertEquals("x1 = -1\nx1 = 2i\nx2 = -2i\n", writer.toString());
+        assertEquals("", outputStream.toString(), "nothing goes to the console");
+    }
+
+    @Test
+    public void testAppendableSinkDrainsWhenFull() throws Exception {
+        StringBuilder target = new StringBuilder();
+        ResultSink sink = ResultSink.of(target, 8);
+        sink.write("first record");
+        assertEquals("first record\n", target.toString());
+    }
+
+    /**
+     * Category: channel sink encodes into a direct buffer smaller than a record
+     */
+    @Test
+    public void testChannelSink() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ResultSink sink = ResultSink.of(Channels.newChannel(bytes), 4)) {
+            Quadratic.solveQuadratic(2, -7, 3, sink);
+            sink.write("error");
+        }
+        assertEquals("x1 = 3\nx2 = 0.5\nerror\n", bytes.toString(StandardCharsets.US_ASCII.name()));
+    }
+
+    /**
+     * Category: buffer sink writes into a caller-owned buffer
+     */
+    @Test
+    public void testBufferSink() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(16);
+        ResultSink sink = ResultSink.of(buffer);
+        Quadratic.solveQuadratic(1, -3, 2, sink);
+        assertEquals("x1 = 2\nx2 = 1\n".length(), buffer.position());
+        assertThrows(BufferOverflowException.class, () -> sink.write("does not fit"));
+    }
+
+    @Test
+    public void testInvalidSinks() {
+        assertThrows(IllegalArgumentException.class, () -> ResultSink.of((Appendable) null));
+        assertThrows(IllegalArgumentException.class, () -> ResultSink.of(new StringBuilder(), 0));
+        assertThrows(IllegalArgumentException.class, () -> ResultSink.of(Channels.newChannel(new ByteArrayOutputStream()), 0));
+        assertThrows(IllegalArgumentException.class, () -> ResultSink.of((ByteBuffer) null));
+    }
+
+    @Test
+    public void testFailedSolveWritesNothing() throws IOException {
+        StringBuilder target = new StringBuilder();
+        ResultSink sink = ResultSink.of(target);
+        assertThrows(NotEnoughPrecisionException.class, () -> Quadratic.solveQuadratic(0, 1, 1, sink));
+        sink.flush();
+        assertEquals("", target.toString());
+    }
+}
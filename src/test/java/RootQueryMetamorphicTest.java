@@ -0,0 +1,174 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Metamorphic Testing for the root query and aggregation API
+ */
+public class RootQueryMetamorphicTest {
+
+    private static final int SIZE = 10007;
+
+    private final double[] a = new double[SIZE], b = new double[SIZE], c = new double[SIZE];
+    private final double[] real = new double[2 * SIZE], imaginary = new double[2 * SIZE];
+    private final int[] count = new int[SIZE], status = new int[SIZE];
+
+    RootQueryMetamorphicTest() {
+        Random random = new Random(22);
+        for (int i = 0; i < SIZE; i++) {
+            a[i] = random.nextInt(7) - 3;
+            b[i] = random.nextInt(13) - 6;
+            c[i] = random.nextInt(7) - 3;
+            if (i % 97 == 0) b[i] = 1e10; // cancellation
+            if (i % 89 == 0) c[i] = Double.NaN;
+        }
+        new QuadraticSolver().solve(a, b, c, real, imaginary, count, status);
+    }
+
+    private static RootQuery query(int threshold) {
+        return new RootQuery(new QuadraticSolver(), ForkJoinPool.commonPool(), threshold);
+    }
+
+    private boolean hasRealRoots(int i) {
+        return status[i] == Quadratic.STATUS_OK && imaginary[2 * i] == 0;
+    }
+
+    /**
+     * Metamorphic Relation: counting by the sign of the discriminant agrees with the solved batch, however the columns are split
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 64, 100, 100000})
+    public void testClassify(int threshold) {
+        long realRoots = 0, repeated = 0, complex = 0, failed = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (status[i] != Quadratic.STATUS_OK) failed++;
+            else if (imaginary[2 * i] != 0) complex++;
+            else if (count[i] == 1) repeated++;
+            else realRoots++;
+        }
+        RootQuery.Counts counts = query(threshold).classify(a, b, c);
+        assertEquals(realRoots, counts.getReal());
+        assertEquals(repeated, counts.getRepeated());
+        assertEquals(complex, counts.getComplex());
+        assertEquals(failed, counts.getFailed());
+        assertEquals(SIZE, counts.getTotal());
+        assertTrue(failed > 0 && complex > 0 && repeated > 0 && realRoots > 0);
+    }
+
+    /**
+     * Metamorphic Relation: classifying agrees with solving each equation, also for overflowing or underflowing discriminants and for
+     * solvers that rescue or re-solve equations the plain check passes or fails
+     */
+    @Test
+    public void testClassifyAgreesWithEverySolver() {
+        double[][] edge = {
+            {1, 1e200, 1}, {1, 1.3e154, -4.2e307}, {1, -1e200, -1e300}, {1e-170, 3e-170, 2e-170}, {1e-300, 0, -1e-300},
+            {1.6065673259677284, -1.4685353621109325, 0.335590679660093}, {1.0000000074505806, 2, 0.9999999925494194}, {2, 4, 2},
+            {1, 1e10, 1}, {0, 1, 1}, {1, Double.NaN, 1}, {1, -3, 2}, {1, 0, 4}, {3, 6, 3}
+        };
+        int n = SIZE + edge.length;
+        double[] ea = Arrays.copyOf(a, n), eb = Arrays.copyOf(b, n), ec = Arrays.copyOf(c, n);
+        for (int k = 0; k < edge.length; k++) {
+            ea[SIZE + k] = edge[k][0];
+            eb[SIZE + k] = edge[k][1];
+            ec[SIZE + k] = edge[k][2];
+        }
+
+        QuadraticSolver[] solvers = {
+            new QuadraticSolver(), new QuadraticSolver(SqrtStrategy.INTRINSIC, true),
+            new TieredQuadraticSolver(), new CachingQuadraticSolver()
+        };
+        for (QuadraticSolver solver : solvers) {
+            long realRoots = 0, repeated = 0, complex = 0, failed = 0;
+            QuadraticRoots roots = new QuadraticRoots();
+            for (int i = 0; i < n; i++) {
+                if (solver.solveInto(ea[i], eb[i], ec[i], roots) != Quadratic.STATUS_OK) failed++;
+                else if (roots.isComplex()) complex++;
+                else if (roots.getCount() == 1) repeated++;
+                else realRoots++;
+            }
+            RootQuery.Counts counts = new RootQuery(solver, ForkJoinPool.commonPool(), 64).classify(ea, eb, ec);
+            String name = solver.getClass().getSimpleName();
+            assertEquals(realRoots, counts.getReal(), name);
+            assertEquals(repeated, counts.getRepeated(), name);
+            assertEquals(complex, counts.getComplex(), name);
+            assertEquals(failed, counts.getFailed(), name);
+        }
+    }
+
+    /**
+     * Metamorphic Relation: selecting and counting equations with a root in a range agree with filtering the solved batch
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 64, 1000})
+    public void testRangePredicates(int threshold) {
+        RootQuery query = query(threshold);
+        double low = -1, high = 0.5;
+        BitSet expected = new BitSet();
+        for (int i = 0; i < SIZE; i++) {
+            if (!hasRealRoots(i)) continue;
+            double x1 = real[2 * i], x2 = real[2 * i + 1];
+            if ((x1 >= low && x1 <= high) || (x2 >= low && x2 <= high)) expected.set(i);
+        }
+        assertEquals(expected, query.select(a, b, c, low, high));
+        assertEquals(expected.cardinality(), query.count(a, b, c, low, high));
+
+        // widening the range never loses an equation
+        BitSet wider = query.select(a, b, c, -10, 10);
+        BitSet both = (BitSet) expected.clone();
+        both.and(wider);
+        assertEquals(expected, both);
+    }
+
+    /**
+     * Metamorphic Relation: statistics and histogram of the larger root agree with the solved batch
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 64, 1000})
+    public void testAggregates(int threshold) {
+        RootQuery query = query(threshold);
+        long n = 0;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum = 0;
+        long[] histogram = new long[8];
+        for (int i = 0; i < SIZE; i++) {
+            if (!hasRealRoots(i)) continue;
+            double root = Math.max(real[2 * i], real[2 * i + 1]);
+            n++;
+            min = Math.min(min, root);
+            max = Math.max(max, root);
+            sum += root;
+            if (root >= -4 && root < 4) histogram[(int) Math.floor(root + 4)]++;
+        }
+
+        RootQuery.Statistics statistics = query.statistics(a, b, c);
+        assertEquals(n, statistics.getCount());
+        assertEquals(min, statistics.getMin());
+        assertEquals(max, statistics.getMax());
+        assertEquals(sum / n, statistics.getMean(), 1e-9);
+        assertArrayEquals(histogram, query.histogram(a, b, c, -4, 4, 8));
+    }
+
+    /**
+     * Empty columns and invalid arguments
+     */
+    @Test
+    public void testEdgeCases() {
+        RootQuery query = new RootQuery();
+        double[] empty = {};
+        assertEquals(0, query.classify(empty, empty, empty).getTotal());
+        assertTrue(Double.isNaN(query.statistics(empty, empty, empty).getMean()));
+        assertTrue(query.select(empty, empty, empty, 0, 1).isEmpty());
+        assertEquals(64, query(1).getThreshold());
+        assertThrows(IllegalArgumentException.class, () -> query.classify(a, b, empty));
+        assertThrows(IllegalArgumentException.class, () -> query.count(a, b, c, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> query.histogram(a, b, c, 0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> query.select(a, b, c, Double.NaN, 1));
+    }
+
+}
@@ -0,0 +1,186 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+/**
+ * Test class using Category-Partition Testing approach for the solver metrics
+ */
+public class SolverMetricsCategoryPartitionTest {
+
+    private final SolverMetrics metrics = SolverMetrics.get();
+
+    @BeforeEach
+    public void reset() {
+        metrics.reset();
+    }
+
+    /**
+     * Category: metrics are off unless the JVM was started with the switch, and then solving records nothing
+     */
+    @Test
+    public void testDisabledByDefault() throws NotEnoughPrecisionException {
+        assertEquals(Boolean.getBoolean(SolverMetrics.PROPERTY), SolverMetrics.ENABLED);
+        if (SolverMetrics.ENABLED) return;
+        Quadratic.solve(1, -3, 2);
+        assertThrows(NotEnoughPrecisionException.class, () -> Quadratic.solve(0, 1, 1));
+        assertEquals(0, metrics.getSolveCount());
+        assertEquals(0, metrics.getExceptionCount());
+        assertEquals(0, metrics.getNewtonCalls());
+    }
+
+    /**
+     * Category: counts by status, exceptions and Newton iterations
+     */
+    @Test
+    public void testCounts() {
+        SolverMetrics.recordBatch(new int[] {Quadratic.STATUS_OK, Quadratic.STATUS_NAN_INPUT, Quadratic.STATUS_OK, Quadratic.STATUS_CANCELLATION}, 0, 4);
+        SolverMetrics.recordBatch(Quadratic.STATUS_OVERFLOW);
+        SolverMetrics.recordSolve(Quadratic.STATUS_UNDERFLOW, 10);
+        SolverMetrics.recordSolve(Quadratic.STATUS_NOT_ENOUGH_PRECISION, 20);
+        SolverMetrics.recordException();
+        SolverMetrics.recordNewton(3);
+        SolverMetrics.recordNewton(6);
+
+        assertEquals(7, metrics.getSolveCount());
+        assertEquals(5, metrics.getFailureCount());
+        assertEquals(1, metrics.getNotEnoughPrecisionCount());
+        assertEquals(1, metrics.getNanInputCount());
+        assertEquals(1, metrics.getOverflowCount());
+        assertEquals(1, metrics.getUnderflowCount());
+        assertEquals(1, metrics.getCancellationCount());
+        assertEquals(1, metrics.getExceptionCount());
+        assertEquals(2, metrics.getNewtonCalls());
+        assertEquals(4.5, metrics.getMeanNewtonIterations());
+        assertEquals(15.0, metrics.getMeanLatencyNanos());
+        assertTrue(metrics.getSolvesPerSecond() > 0);
+
+        metrics.reset();
+        assertEquals(0, metrics.getSolveCount());
+        assertEquals(0, metrics.getMaxLatencyNanos());
+        assertEquals(0, metrics.getLatencyP99Nanos());
+        assertEquals(0.0, metrics.getMeanNewtonIterations());
+    }
+
+    /**
+     * Category: every latency falls into the bucket whose limit bounds it within one eighth
+     */
+    @Test
+    public void testBuckets() {
+        Random random = new Random(25);
+        for (int k = 0; k < 100000; k++) {
+            long value = (k < 1000) ? k : random.nextLong() >>> (1 + random.nextInt(63));
+            int bucket = SolverMetrics.bucket(value);
+            assertTrue(SolverMetrics.bucketLimit(bucket) >= value);
+            if (bucket > 0) assertTrue(SolverMetrics.bucketLimit(bucket - 1) < value);
+            assertTrue(SolverMetrics.bucketLimit(bucket) - value <= value / 8);
+        }
+        assertEquals(Long.MAX_VALUE, SolverMetrics.bucketLimit(SolverMetrics.bucket(Long.MAX_VALUE)));
+        assertEquals(0, SolverMetrics.bucket(-5));
+    }
+
+    /**
+     * Category: percentiles of a known latency distribution
+     */
+    @Test
+    public void testPercentiles() {
+        for (long nanos = 1; nanos <= 1000; nanos++) SolverMetrics.recordSolve(Quadratic.STATUS_OK, nanos);
+        assertEquals(1000, metrics.getMaxLatencyNanos());
+        assertEquals(500.5, metrics.getMeanLatencyNanos());
+        assertEquals(500, metrics.getLatencyP50Nanos(), 500 / 8.0);
+        assertEquals(900, metrics.getLatencyP90Nanos(), 900 / 8.0);
+        assertEquals(990, metrics.getLatencyP99Nanos(), 990 / 8.0);
+        assertEquals(1000, metrics.getLatencyP999Nanos());
+        assertEquals(1, metrics.getLatencyPercentile(0));
+        assertEquals(1000, metrics.getLatencyPercentile(1));
+        assertThrows(IllegalArgumentException.class, () -> metrics.getLatencyPercentile(1.5));
+    }
+
+    /**
+     * Runs the batch modes in a JVM started with metrics enabled and prints what was recorded. The switch is read once per JVM, so it
+     * cannot be turned on from within the test run.
+     */
+    public static final class Enabled {
+
+        public static void main(String[] args) throws IOException {
+            String input = "1 -3 2\n1,2,1\nabc 1 1\n0 1 1\n1 0 1\n0.000000001 1 0.000000001\n";
+            QuadraticBatch.run(stream(input), ResultSink.of(new StringBuilder()), new QuadraticSolver());
+            new QuadraticPipeline(new QuadraticSolver(), 2, 2).run(stream(input), ResultSink.of(new StringBuilder()));
+            SolverMetrics metrics = SolverMetrics.get();
+            System.out.print(SolverMetrics.ENABLED + " " + metrics.getSolveCount() + " " + metrics.getFailureCount() + " "
+                + metrics.getNewtonCalls() + " " + metrics.getMeanNewtonIterations() + " " + metrics.getMaxLatencyNanos());
+
+            // a sweep of small steps, solved as a batch
+            metrics.reset();
+            int n = 1000;
+            double[] a = new double[n], b = new double[n], c = new double[n];
+            for (int i = 0; i < n; i++) {
+                a[i] = 1;
+                b[i] = -5 + i * 1e-4;
+                c[i] = 3;
+            }
+            new SweepSolver().solve(a, b, c, new double[2 * n], new double[2 * n], new int[n], new int[n]);
+            System.out.print(" " + metrics.getSolveCount() + " " + metrics.getNewtonCalls() + " " + metrics.getMeanNewtonIterations());
+        }
+
+        private static InputStream stream(String input) {
+            return new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII));
+        }
+
+    }
+
+    /**
+     * Category: with metrics enabled, the batch and pipelined batch modes and the sweep solver count every equation they solve and the
+     * seeded Newton square root counts its iterations
+     */
+    @Test
+    public void testBatchModesRecorded() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-D" + SolverMetrics.PROPERTY + "=true", "-cp", System.getProperty("java.class.path"),
+            Enabled.class.getName()).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(0, process.waitFor(), output);
+
+        String[] values = output.trim().split(" ");
+        assertEquals("true", values[0], output);
+        assertEquals(8, Long.parseLong(values[1]), output); // four solvable rows in each mode
+        assertEquals(2, Long.parseLong(values[2]), output); // the last row loses b^2 - 4ac
+        assertEquals(4, Long.parseLong(values[3]), output); // a zero discriminant needs no Newton steps
+        assertTrue(Double.parseDouble(values[4]) >= 1, output);
+        assertTrue(Long.parseLong(values[5]) > 0, output);
+
+        // the sweep solver records its batch, and its warm starts take about one Newton step
+        assertEquals(1000, Long.parseLong(values[6]), output);
+        assertEquals(1000, Long.parseLong(values[7]), output);
+        assertTrue(Double.parseDouble(values[8]) < 1.1, output);
+    }
+
+    /**
+     * Category: attributes and the reset operation through JMX
+     */
+    @Test
+    public void testMBean() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        SolverMetrics.register(server);
+        ObjectName name = new ObjectName(SolverMetrics.OBJECT_NAME);
+
+        SolverMetrics.recordSolve(Quadratic.STATUS_CANCELLATION, 100);
+        assertEquals(1L, server.getAttribute(name, "SolveCount"));
+        assertEquals(1L, server.getAttribute(name, "CancellationCount"));
+        assertEquals(100L, server.getAttribute(name, "MaxLatencyNanos"));
+
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, server.getAttribute(name, "SolveCount"));
+    }
+
+}
@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Category-Partition Testing for the square root strategies and the QuadraticSolver that uses them
+ */
+public class SqrtStrategyCategoryPartitionTest {
+
+    /**
+     * Categories of discriminant magnitude
+     */
+    static Stream<Double> magnitudeProvider() {
+        return Stream.of(
+            1.0,                    // exact square
+            2.0,                    // irrational root
+            9.0,                    // perfect square
+            0.25,                   // fraction
+            3.999999,               // top of the mantissa range
+            1e-300,                 // tiny
+            Double.MIN_VALUE * 7,   // subnormal
+            1e300,                  // huge
+            Double.MAX_VALUE        // largest finite
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("magnitudeProvider")
+    public void testSeededNewtonMatchesMathSqrt(double value) {
+        assertEquals(Math.sqrt(value), SqrtStrategy.SEEDED_NEWTON.sqrt(value), "sqrt(" + value + ")");
+    }
+
+    @Test
+    public void testSeededNewtonCorrectsLastBits() {
+        // the plain Newton steps leave this one two ulps off
+        assertEquals(Math.sqrt(2.264540643041696E-4), SqrtStrategy.SEEDED_NEWTON.sqrt(2.264540643041696E-4));
+
+        Random random = new Random(3);
+        for (int i = 0; i < 100000; i++) {
+            double value = Math.scalb(1 + random.nextDouble(), random.nextInt(2000) - 1000);
+            assertEquals(Math.sqrt(value), SqrtStrategy.SEEDED_NEWTON.sqrt(value), "sqrt(" + value + ")");
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("magnitudeProvider")
+    public void testIntrinsicMatchesMathSqrt(double value) {
+        assertEquals(Math.sqrt(value), SqrtStrategy.INTRINSIC.sqrt(value));
+    }
+
+    @Test
+    public void testNewtonKeepsOriginalBehaviour() {
+        assertEquals(0.0, SqrtStrategy.NEWTON.sqrt(0));
+        assertEquals(2.0, SqrtStrategy.NEWTON.sqrt(4), 0.00001);
+        assertEquals(Math.sqrt(2), SqrtStrategy.NEWTON.sqrt(2), 0.00001);
+    }
+
+    @Test
+    public void testSeededNewtonSpecialValues() {
+        assertEquals(0.0, SqrtStrategy.SEEDED_NEWTON.sqrt(0));
+        assertEquals(Double.POSITIVE_INFINITY, SqrtStrategy.SEEDED_NEWTON.sqrt(Double.POSITIVE_INFINITY));
+        assertTrue(Double.isNaN(SqrtStrategy.SEEDED_NEWTON.sqrt(Double.NaN)));
+        assertTrue(Double.isNaN(SqrtStrategy.SEEDED_NEWTON.sqrt(-1)));
+    }
+
+    @Test
+    public void testSolverUsesSelectedStrategy() throws NotEnoughPrecisionException {
+        QuadraticSolver fixed = new QuadraticSolver(value -> 3);
+        QuadraticRoots roots = fixed.solve(1, 5, 4);
+        assertEquals(-4.0, roots.getReal1());
+        assertEquals(-1.0, roots.getReal2());
+        assertSame(SqrtStrategy.SEEDED_NEWTON, new QuadraticSolver().getSqrtStrategy());
+        assertThrows(IllegalArgumentException.class, () -> new QuadraticSolver(null));
+    }
+
+    @Test
+    public void testStrategiesAgreeOnRoots() throws NotEnoughPrecisionException {
+        double[][] equations = {{1, -3, 2}, {2, -7, 3}, {1, 2, 10}, {1e-3, 1e3, 1}};
+        for (double[] e : equations) {
+            QuadraticRoots expected = new QuadraticSolver(SqrtStrategy.INTRINSIC).solve(e[0], e[1], e[2]);
+            QuadraticRoots actual = new QuadraticSolver(SqrtStrategy.SEEDED_NEWTON).solve(e[0], e[1], e[2]);
+            assertEquals(expected.getReal1(), actual.getReal1(), Math.ulp(expected.getReal1()) * 2);
+            assertEquals(expected.getReal2(), actual.getReal2(), Math.ulp(expected.getReal2()) * 2);
+            assertEquals(expected.getImaginary1(), actual.getImaginary1(), Math.ulp(expected.getImaginary1()) * 2);
+        }
+    }
+}
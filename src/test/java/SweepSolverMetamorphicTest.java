@@ -0,0 +1,100 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+/**
+ * Metamorphic Testing for the warm-started sweep solver
+ */
+public class SweepSolverMetamorphicTest {
+
+    /**
+     * Metamorphic Relation: a sweep gives the same roots as solving every step cold
+     */
+    @Test
+    public void testSweepMatchesColdSolve() {
+        SweepSolver sweep = new SweepSolver();
+        QuadraticSolver cold = new QuadraticSolver(SqrtStrategy.SEEDED_NEWTON);
+        QuadraticRoots warm = new QuadraticRoots(), expected = new QuadraticRoots();
+
+        // c sweeps through the real, repeated and complex regions of x^2 - 2x + c
+        for (double c = -50; c <= 50; c += 0.001) {
+            assertEquals(cold.solveInto(1, -2, c, expected), sweep.solve(1, -2, c, warm));
+            assertEquals(expected.toString(), warm.toString());
+        }
+    }
+
+    /**
+     * Metamorphic Relation: large jumps, sign changes and failures fall back to a cold solve with the same result
+     */
+    @Test
+    public void testJumpsAndFailures() throws NotEnoughPrecisionException {
+        SweepSolver sweep = new SweepSolver();
+        QuadraticRoots roots = new QuadraticRoots();
+
+        assertEquals(Quadratic.STATUS_OK, sweep.solve(1, -3, 2, roots));
+        assertEquals("x1 = 2\nx2 = 1", roots.toString());
+
+        assertEquals(Quadratic.STATUS_OK, sweep.solve(1, -3, 2.0001, roots));
+        assertEquals(new QuadraticSolver().solve(1, -3, 2.0001).toString(), roots.toString());
+
+        assertEquals(Quadratic.STATUS_OK, sweep.solve(1, -3, -1000, roots)); // jump
+        assertEquals(new QuadraticSolver().solve(1, -3, -1000).toString(), roots.toString());
+        assertEquals(Quadratic.STATUS_OK, sweep.solve(1, 0, 4, roots)); // sign change
+        assertEquals("x1 = 2i\nx2 = -2i", roots.toString());
+
+        assertEquals(Quadratic.STATUS_CANCELLATION, sweep.solve(1, 1e10, 1, roots));
+        assertEquals(0, roots.getCount());
+        assertEquals(Quadratic.STATUS_OK, sweep.solve(1, 0, 4.0001, roots)); // cold after a failure
+        assertEquals(new QuadraticSolver().solve(1, 0, 4.0001).toString(), roots.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> new SweepSolver(0));
+        assertThrows(IllegalArgumentException.class, () -> new SweepSolver(1));
+    }
+
+    /**
+     * Metamorphic Relation: the warm start never changes the root, even when the jump allowed is close to the whole discriminant
+     */
+    @Test
+    public void testLargeJumpsMatchColdSolve() {
+        SweepSolver sweep = new SweepSolver(0.999);
+        QuadraticSolver cold = new QuadraticSolver(SqrtStrategy.SEEDED_NEWTON);
+        QuadraticRoots warm = new QuadraticRoots(), expected = new QuadraticRoots();
+        Random random = new Random(18);
+        double c = 0;
+
+        for (int i = 0; i < 10000; i++) {
+            c = c * (0.001 + 1.998 * random.nextDouble()) + random.nextGaussian();
+            assertEquals(cold.solveInto(1, -2, c, expected), sweep.solve(1, -2, c, warm));
+            assertEquals(expected.toString(), warm.toString(), "c = " + c);
+        }
+    }
+
+    /**
+     * Metamorphic Relation: the array form equals stepping through the same sweep one call at a time
+     */
+    @Test
+    public void testBatchMatchesSteps() {
+        int n = 1000;
+        double[] a = new double[n], b = new double[n], c = new double[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = 1 + i * 1e-4;
+            b[i] = -5 + Math.sin(i * 0.01);
+            c[i] = 3;
+        }
+        double[] real = new double[2 * n], imaginary = new double[2 * n];
+        int[] count = new int[n], status = new int[n];
+        new SweepSolver().solve(a, b, c, real, imaginary, count, status);
+
+        SweepSolver steps = new SweepSolver();
+        QuadraticRoots roots = new QuadraticRoots();
+        for (int i = 0; i < n; i++) {
+            assertEquals(steps.solve(a[i], b[i], c[i], roots), status[i]);
+            assertEquals(roots.getReal1(), real[2 * i]);
+            assertEquals(roots.getReal2(), real[2 * i + 1]);
+            assertEquals(roots.getImaginary1(), imaginary[2 * i]);
+            assertEquals(roots.getCount(), count[i]);
+        }
+    }
+
+}
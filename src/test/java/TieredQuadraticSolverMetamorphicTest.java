@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+/**
+ * Metamorphic Testing for the tiered precision Quadratic Equation Solver
+ */
+public class TieredQuadraticSolverMetamorphicTest {
+
+    private final TieredQuadraticSolver solver = new TieredQuadraticSolver();
+
+    /**
+     * Each tier is reached by the inputs it exists for, including ones the plain solver rejects
+     */
+    @ParameterizedTest
+    @CsvSource({
+        "1, -3, 2, DOUBLE, 2, 1",
+        "1, 1e10, 1, DOUBLE, -1e10, -1e-10",
+        "1.0000000074505806, 2, 0.9999999925494194, DOUBLE_DOUBLE, -1, -0.9999999850988388",
+        "1e200, 1e300, 1e200, DOUBLE, -1e100, -1e-100",
+        "1e-200, 3e-200, 2e-200, DOUBLE, -2, -1",
+        "1, 1e-300, -1, BIG_DECIMAL, -1, 1",
+        "2, 0, 0, BIG_DECIMAL, 0, 0"
+    })
+    public void testTiers(double a, double b, double c, PrecisionTier tier, double x1, double x2) throws NotEnoughPrecisionException {
+        QuadraticRoots roots = solver.solve(a, b, c);
+        assertEquals(tier, roots.getPrecisionTier());
+        assertFalse(roots.isComplex());
+        assertEquals(x1, roots.getReal1(), Math.abs(x1)*1e-15);
+        assertEquals(x2, roots.getReal2(), Math.abs(x2)*1e-15);
+    }
+
+    /**
+     * Equations without representable roots still fail
+     */
+    @Test
+    public void testFailures() {
+        assertThrows(NotEnoughPrecisionException.class, () -> solver.solve(0, 1, 1));
+        assertThrows(NotEnoughPrecisionException.class, () -> solver.solve(Double.NaN, 1, 1));
+        assertThrows(NotEnoughPrecisionException.class, () -> solver.solve(1, Double.POSITIVE_INFINITY, 1));
+        assertThrows(NotEnoughPrecisionException.class, () -> solver.solve(1e-300, 1e300, 1));
+        assertThrows(NotEnoughPrecisionException.class, () -> solver.solve(Double.MIN_VALUE, 0, 1e300));
+    }
+
+    /**
+     * Metamorphic Relation: inputs the plain solver handles give the same roots, reported as the double tier
+     */
+    @Test
+    public void testAgreesWithPlainSolver() {
+        QuadraticSolver plain = new QuadraticSolver();
+        QuadraticRoots expected = new QuadraticRoots();
+        QuadraticRoots actual = new QuadraticRoots();
+        Random random = new Random(13);
+        int compared = 0;
+
+        for (int i = 0; i < 10000; i++) {
+            double a = random.nextGaussian()*100, b = random.nextGaussian()*100, c = random.nextGaussian()*100;
+            if (plain.solveInto(a, b, c, expected) != Quadratic.STATUS_OK) continue;
+            assertEquals(Quadratic.STATUS_OK, solver.solveInto(a, b, c, actual));
+            if (actual.getPrecisionTier() != PrecisionTier.DOUBLE) continue;
+            assertEquals(expected.toString(), actual.toString());
+            compared++;
+        }
+        assertTrue(compared > 9500);
+    }
+
+    /**
+     * Metamorphic Relation: near-repeated roots (b^2 close to 4ac) agree with the roots the equation was built from
+     */
+    @Test
+    public void testCancellationRecoversRoots() {
+        QuadraticSolver plain = new QuadraticSolver();
+        QuadraticRoots actual = new QuadraticRoots();
+        Random random = new Random(14);
+        int rejectedByPlain = 0;
+
+        for (int i = 0; i < 10000; i++) {
+            // (x - r)(x - r - d) with a tiny gap d, chosen so that b and c are exact doubles
+            double r = (random.nextInt(8191) - 4095) / 1024.0;
+            double d = Math.scalb(1.0, -20 - random.nextInt(16));
+            double b = -(2*r + d), c = r*(r + d);
+            assertEquals(Quadratic.STATUS_OK, solver.solveInto(1, b, c, actual));
+            assertEquals(r + d, Math.max(actual.getReal1(), actual.getReal2()), 1e-14);
+            assertEquals(r, Math.min(actual.getReal1(), actual.getReal2()), 1e-14);
+            if (plain.solveInto(1, b, c, new QuadraticRoots()) != Quadratic.STATUS_OK) rejectedByPlain++;
+        }
+        assertTrue(rejectedByPlain > 0);
+    }
+
+    /**
+     * Metamorphic Relation: when b^2 nearly cancels 4ac, roots reported as the double tier are still within a few ulps of the exact ones
+     */
+    @Test
+    public void testDoubleTierErrorNearCancellation() {
+        QuadraticRoots roots = new QuadraticRoots();
+        assertEquals(Quadratic.STATUS_OK, solver.solveInto(1.6065673259677284, -1.4685353621109325, 0.335590679660093, roots));
+        assertNotEquals(PrecisionTier.DOUBLE, roots.getPrecisionTier());
+
+        Random random = new Random(15);
+        int doubleTier = 0;
+        for (int i = 0; i < 10000; i++) {
+            // c within a few parts per million of b^2/4a, so the products cancel to a handful of significant bits
+            double a = 0.5 + random.nextDouble(), b = -(0.5 + random.nextDouble());
+            double c = b*b/(4*a) * (1 - random.nextDouble()*1e-5);
+            assertEquals(Quadratic.STATUS_OK, solver.solveInto(a, b, c, roots));
+            if (roots.getPrecisionTier() != PrecisionTier.DOUBLE) continue;
+            double[] exact = exactRoots(a, b, c);
+            assertEquals(exact[0], Math.max(roots.getReal1(), roots.getReal2()), 4*Math.ulp(exact[0]));
+            assertEquals(exact[1], Math.min(roots.getReal1(), roots.getReal2()), 4*Math.ulp(exact[1]));
+            doubleTier++;
+        }
+        assertTrue(doubleTier > 0);
+    }
+
+    private static double[] exactRoots(double a, double b, double c) {
+        MathContext context = new MathContext(40);
+        BigDecimal bigA = new BigDecimal(a), bigB = new BigDecimal(b), bigC = new BigDecimal(c);
+        BigDecimal root = bigB.multiply(bigB).subtract(BigDecimal.valueOf(4).multiply(bigA).multiply(bigC)).sqrt(context);
+        BigDecimal twoA = bigA.add(bigA);
+        double x1 = bigB.negate().add(root).divide(twoA, context).doubleValue();
+        double x2 = bigB.negate().subtract(root).divide(twoA, context).doubleValue();
+        return new double[] {x1, x2};
+    }
+
+}